@@ -342,8 +342,13 @@ public class AppState {
 
 	//region Package Private Methods
 
+	// Overridden by the unmodifiable copies held by StateSnapshot
+	void checkWritable() {
+	}
+
 	void copyTo(AppState state) {
 		if (state != null) {
+			state.checkWritable();
 			state._customBuild = _customBuild;
 			state._available = _available;
 			state._error = _error;
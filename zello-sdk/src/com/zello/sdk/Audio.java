@@ -39,10 +39,9 @@ public class Audio {
 				@Override
 				public void onReceive(Context context, Intent intent) {
 					updateAudioState(intent);
+					Zello.getInstance().journal.record(EventJournal.BROADCAST_AUDIO_STATE, _mode != null ? _mode.ordinal() : -1);
 
-					for (Events event : Zello.getInstance().events) {
-						event.onAudioStateChanged();
-					}
+					Zello.getInstance().events.fire(EventsCall.audioStateChanged);
 				}
 			};
 			Intent intentStickyAudioState = context.registerReceiver(_receiver, new IntentFilter(packageName + "." + Constants.ACTION_AUDIO_STATE));
@@ -164,6 +163,7 @@ public class Audio {
 					command = Constants.EXTRA_SP;
 			}
 			intent.putExtra(Constants.EXTRA_MODE, command);
+			Zello.getInstance().journal.recordCommand(Constants.VALUE_SET_AUDIO, mode.ordinal());
 			context.sendBroadcast(intent);
 		}
 	}
@@ -184,8 +184,13 @@ public class Contact {
 
 	//region Package Private Methods
 
+	// Overridden by the unmodifiable copies held by StateSnapshot
+	void checkWritable() {
+	}
+
 	void copyTo(Contact contact) {
 		if (contact != null) {
+			contact.checkWritable();
 			contact._name = _name;
 			contact._fullName = _fullName;
 			contact._displayName = _displayName;
@@ -0,0 +1,337 @@
+package com.zello.sdk;
+
+import android.util.Log;
+
+/**
+ * <p>
+ *     The <code>ContactView</code> class provides read access to a single row of {@link Contacts} without copying it.
+ * </p>
+ * <p>
+ *     Unlike {@link Contacts#getItem(int)}, which reads every property of the contact, a view reads each property
+ *     the first time it's requested and keeps it for subsequent calls. Lists that only show a few properties of each row
+ *     only pay for the columns they render.
+ *     A view is positioned with {@link Contacts#getView(int, ContactView)} and can be repositioned any number of times.
+ *     Values read through a view are undefined after the contact list changes; position the view again to read the new data.
+ * </p>
+ * @see Contacts#getView(int, ContactView)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ContactView {
+
+	//region Private Properties
+
+	private static final int _decodedName = 1;
+	private static final int _decodedFullName = 1 << 1;
+	private static final int _decodedDisplayName = 1 << 2;
+	private static final int _decodedType = 1 << 3;
+	private static final int _decodedStatus = 1 << 4;
+	private static final int _decodedStatusMessage = 1 << 5;
+	private static final int _decodedUsersCount = 1 << 6;
+	private static final int _decodedUsersTotal = 1 << 7;
+	private static final int _decodedTitle = 1 << 8;
+	private static final int _decodedMuted = 1 << 9;
+	private static final int _decodedNoDisconnect = 1 << 10;
+
+	private ContactsSnapshot _snapshot; // Source of the data if the list is loaded
+	private ContactsCursor _cursor; // Source of the data otherwise
+	private int _position = -1;
+	private int _decoded; // Bitmask of the properties that were already read
+
+	private String _name;
+	private String _fullName;
+	private String _displayName;
+	private ContactType _type = ContactType.USER;
+	private ContactStatus _status = ContactStatus.OFFLINE;
+	private String _statusMessage;
+	private int _usersCount;
+	private int _usersTotal;
+	private String _title;
+	private boolean _muted;
+	private boolean _noDisconnect;
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the index of the contact in the list or, for views positioned with {@link ContactsSelection#getView(int, ContactView)}, in the snapshot.
+	 * @return Index of the contact or <code>-1</code> if the view is not positioned.
+	 */
+	public int getPosition() {
+		return _position;
+	}
+
+	/**
+	 * Returns the identifying name of the contact.
+	 * @return See {@link Contact#getName()}.
+	 */
+	public String getName() {
+		decode(_decodedName);
+		return _name;
+	}
+
+	/**
+	 * Returns the full name of the contact.
+	 * @return See {@link Contact#getFullName()}.
+	 */
+	public String getFullName() {
+		decode(_decodedFullName);
+		return _fullName;
+	}
+
+	/**
+	 * Returns the display name of the contact.
+	 * @return See {@link Contact#getDisplayName()}.
+	 */
+	public String getDisplayName() {
+		decode(_decodedDisplayName);
+		return _displayName;
+	}
+
+	/**
+	 * Returns the type of the contact.
+	 * @return See {@link Contact#getType()}.
+	 */
+	public ContactType getType() {
+		decode(_decodedType);
+		return _type;
+	}
+
+	/**
+	 * Returns the status of the contact.
+	 * @return See {@link Contact#getStatus()}.
+	 */
+	public ContactStatus getStatus() {
+		decode(_decodedStatus);
+		return _status;
+	}
+
+	/**
+	 * Returns the custom status message of the contact.
+	 * @return See {@link Contact#getStatusMessage()}.
+	 */
+	public String getStatusMessage() {
+		decode(_decodedStatusMessage);
+		return _statusMessage;
+	}
+
+	/**
+	 * Returns the number of online users in the channel.
+	 * @return See {@link Contact#getUsersCount()}.
+	 */
+	public int getUsersCount() {
+		decode(_decodedUsersCount);
+		return _usersCount;
+	}
+
+	/**
+	 * Returns the number of total users in the channel.
+	 * @return See {@link Contact#getUsersTotal()}.
+	 */
+	public int getUsersTotal() {
+		decode(_decodedUsersTotal);
+		return _usersTotal;
+	}
+
+	/**
+	 * Returns the title of the contact.
+	 * @return See {@link Contact#getTitle()}.
+	 */
+	public String getTitle() {
+		decode(_decodedTitle);
+		return _title;
+	}
+
+	/**
+	 * Returns whether the contact is muted or not.
+	 * @return See {@link Contact#getMuted()}.
+	 */
+	public boolean getMuted() {
+		decode(_decodedMuted);
+		return _muted;
+	}
+
+	/**
+	 * Returns whether the channel has the no disconnect setting enabled or not.
+	 * @return See {@link Contact#getNoDisconnect()}.
+	 */
+	public boolean getNoDisconnect() {
+		decode(_decodedNoDisconnect);
+		return _noDisconnect;
+	}
+
+	/**
+	 * Copies all properties of the contact into a <code>Contact</code> object.
+	 * @param contact The object to copy data to.
+	 * @throws UnsupportedOperationException if <code>contact</code> belongs to a {@link StateSnapshot}.
+	 */
+	public void copyTo(Contact contact) {
+		if (contact != null) {
+			contact.checkWritable();
+			contact._name = getName();
+			contact._fullName = getFullName();
+			contact._displayName = getDisplayName();
+			contact._type = getType();
+			contact._status = getStatus();
+			contact._statusMessage = getStatusMessage();
+			contact._usersCount = getUsersCount();
+			contact._usersTotal = getUsersTotal();
+			contact._title = getTitle();
+			contact._muted = getMuted();
+			contact._noDisconnect = getNoDisconnect();
+		}
+	}
+
+	//endregion
+
+	//region Package Private Methods
+
+	void bind(ContactsSnapshot snapshot, ContactsCursor cursor, int position) {
+		_snapshot = snapshot;
+		_cursor = snapshot != null ? null : cursor;
+		_position = position;
+		_decoded = 0;
+		_name = null;
+		_fullName = null;
+		_displayName = null;
+		_type = ContactType.USER;
+		_status = ContactStatus.OFFLINE;
+		_statusMessage = null;
+		_usersCount = 0;
+		_usersTotal = 0;
+		_title = null;
+		_muted = false;
+		_noDisconnect = false;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	// Reads a single property unless it was already read
+	private void decode(int property) {
+		if ((_decoded & property) != 0) {
+			return;
+		}
+		ContactsSnapshot snapshot = _snapshot;
+		if (snapshot != null) {
+			switch (property) {
+				case _decodedName: {
+					_name = snapshot.getName(_position);
+					break;
+				}
+				case _decodedFullName: {
+					_fullName = snapshot.getFullName(_position);
+					break;
+				}
+				case _decodedDisplayName: {
+					_displayName = snapshot.getDisplayName(_position);
+					break;
+				}
+				case _decodedType: {
+					_type = snapshot.getType(_position);
+					break;
+				}
+				case _decodedStatus: {
+					_status = snapshot.getStatus(_position);
+					break;
+				}
+				case _decodedStatusMessage: {
+					_statusMessage = snapshot.getStatusMessage(_position);
+					break;
+				}
+				case _decodedUsersCount: {
+					_usersCount = snapshot.getUsersCount(_position);
+					break;
+				}
+				case _decodedUsersTotal: {
+					_usersTotal = snapshot.getUsersTotal(_position);
+					break;
+				}
+				case _decodedTitle: {
+					_title = snapshot.getTitle(_position);
+					break;
+				}
+				case _decodedMuted: {
+					_muted = snapshot.getMuted(_position);
+					break;
+				}
+				case _decodedNoDisconnect: {
+					_noDisconnect = snapshot.getNoDisconnect(_position);
+					break;
+				}
+			}
+			_decoded |= property;
+			return;
+		}
+		// Some columns are only defined for certain contact types
+		ContactType type = property == _decodedStatusMessage || property == _decodedUsersCount ||
+				property == _decodedUsersTotal || property == _decodedNoDisconnect ? getType() : null;
+		ContactsCursor cursor = _cursor;
+		if (cursor == null || !cursor.acquire()) {
+			return;
+		}
+		try {
+			// The cursor is shared with other readers, so it has to be moved back to the row of the view before every read
+			synchronized (cursor) {
+				if (!cursor.moveToPosition(_position)) {
+					return;
+				}
+				switch (property) {
+					case _decodedName: {
+						_name = cursor.readName();
+						break;
+					}
+					case _decodedFullName: {
+						_fullName = cursor.readFullName();
+						break;
+					}
+					case _decodedDisplayName: {
+						_displayName = cursor.readDisplayName();
+						break;
+					}
+					case _decodedType: {
+						_type = cursor.readType();
+						break;
+					}
+					case _decodedStatus: {
+						_status = cursor.readStatus();
+						break;
+					}
+					case _decodedStatusMessage: {
+						_statusMessage = cursor.readStatusMessage(type);
+						break;
+					}
+					case _decodedUsersCount: {
+						_usersCount = cursor.readUsersCount(type);
+						break;
+					}
+					case _decodedUsersTotal: {
+						_usersTotal = cursor.readUsersTotal(type);
+						break;
+					}
+					case _decodedTitle: {
+						_title = cursor.readTitle();
+						break;
+					}
+					case _decodedMuted: {
+						_muted = cursor.readMuted();
+						break;
+					}
+					case _decodedNoDisconnect: {
+						_noDisconnect = cursor.readNoDisconnect(type);
+						break;
+					}
+				}
+			}
+			_decoded |= property;
+		} catch (Throwable t) {
+			Log.i("zello sdk", "Error in ContactView.decode: " + t.toString());
+		} finally {
+			cursor.release();
+		}
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,37 @@
+package com.zello.sdk;
+
+/**
+ * A contact watched by a {@link ContactWatchEvents} listener.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactWatch {
+
+	final String _name;
+	final ContactType _type;
+	final ContactWatchEvents _listener;
+
+	ContactWatch(String name, ContactType type, ContactWatchEvents listener) {
+		_name = name;
+		_type = type;
+		_listener = listener;
+	}
+
+	boolean matches(String name, ContactType type, ContactWatchEvents listener) {
+		return _type == type && _listener == listener && _name.equals(name);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof ContactWatch)) {
+			return false;
+		}
+		ContactWatch watch = (ContactWatch) o;
+		return matches(watch._name, watch._type, watch._listener);
+	}
+
+	@Override
+	public int hashCode() {
+		return _name.hashCode() * 31 + _type.hashCode();
+	}
+
+}
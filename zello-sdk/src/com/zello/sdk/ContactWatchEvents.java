@@ -0,0 +1,24 @@
+package com.zello.sdk;
+
+/**
+ * The <code>ContactWatchEvents</code> interface enables monitoring of changes to individual contacts.
+ * @see Zello#watchContact(String, ContactType, ContactWatchEvents)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface ContactWatchEvents {
+
+	/**
+	 * <p>
+	 * Called when the status, status message, users count or muted flag of a watched contact changes.
+	 * </p>
+	 * <p>
+	 * This method is invoked on the UI thread. Changes to other properties of the contact, changes to other contacts
+	 * and the contact being added to or removed from the list do not trigger it.
+	 * </p>
+	 *
+	 * @param contact The new values of the watched contact.
+	 * @see Zello#unwatchContact(String, ContactType, ContactWatchEvents)
+	 */
+	void onContactChanged(Contact contact);
+
+}
@@ -6,6 +6,11 @@ import android.net.Uri;
 import android.os.Handler;
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * <p>
  *     The <code>Contacts</code> class represents the contacts of the current user.
@@ -13,6 +18,10 @@ import android.util.Log;
  * <p>
  *     To use, get the current snapshot of <code>Contacts</code> using the {@link Zello#getContacts()} method. For specific usage, please see the sample projects.
  * </p>
+ * <p>
+ *     The getters can be called from any thread. The data of the list is published as a whole when it changes,
+ *     so a reader either sees the old or the new list, and a cursor that is replaced is only closed after the last reader is done with it.
+ * </p>
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class Contacts {
@@ -21,33 +30,61 @@ public class Contacts {
 
 	private static final String _authoritySuffix = ".provider";
 	private static final String _contactsPath = "/contacts";
-	private static final String _columnName = "name";
-	private static final String _columnFullName = "fullname";
-	private static final String _columnDisplayName = "displayname";
-	private static final String _columnStatusMessage = "statusmessage";
-	private static final String _columnType = "type";
-	private static final String _columnStatus = "status";
-	private static final String _columnUsersCount = "userscount";
-	private static final String _columnUsersTotal = "userstotal";
-	private static final String _columnTitle = "title";
-	private static final String _columnMuted = "muted";
-	private static final String _columnNoDisconnect = "nodisconnect";
+	private static final long _cacheWriteDelay = 2000; // Lets a burst of row patches result in a single cache write
 
 	private ContactsObserver _observer;
-	private Cursor _cursor;
+	private ContactsLoader _loader;
+	private Handler _handler;
+	private final AtomicReference<Source> _source = new AtomicReference<>(); // Current data; replaced as a whole
+	private final Object _requeryLock = new Object();
+	private ContactsSnapshot _deltaSnapshot; // Last snapshot delivered to delta subscribers
+	private volatile ContactsSnapshot _watchSnapshot; // Last snapshot compared for contact watchers
+	private ContactsSnapshot _statsSnapshot; // Snapshot that _stats were computed for; guarded by _stats
+	private final ContactsStats _stats = new ContactsStats(); // Updated from any thread that requests the stats and from the UI thread
+	private volatile boolean _statsTracked; // Keep _stats current after the first request
+	private volatile ContactsSearchIndex _searchIndex; // Word prefix index over the current snapshot; rebuilt lazily when the snapshot is replaced
+	private volatile ContactsOrdering _ordering; // Sort orders of the last sorted snapshot; updated lazily from the previous ones
 	private Context _context;
-	private boolean _invalid;
-	private int _indexName;
-	private int _indexFullName;
-	private int _indexDisplayName;
-	private int _indexStatusMessage;
-	private int _indexType;
-	private int _indexStatus;
-	private int _indexUsersCount;
-	private int _indexUsersTotal;
-	private int _indexTitle;
-	private int _indexMuted;
-	private int _indexNoDisconnect; // Not available if the client app is old - has to be at least 3.19
+	private ContactsQuery _query; // Null for the full contact list
+	private ContactsCache _cache; // Persisted copy of the full contact list
+	private final AtomicReference<ContactsSnapshot> _unsavedSnapshot = new AtomicReference<>(); // Latest snapshot waiting to be written to the cache
+	private final Runnable _cacheWriter = new Runnable() {
+		@Override
+		public void run() {
+			ContactsSnapshot snapshot = _unsavedSnapshot.getAndSet(null);
+			ContactsCache cache = _cache;
+			if (snapshot != null && cache != null) {
+				cache.write(snapshot);
+			}
+		}
+	};
+	private volatile boolean _stale; // The snapshot was read from the cache and hasn't been reconciled with the app yet
+	private volatile boolean _invalid;
+	private boolean _changePending; // A load was started by an invalidation, so its installation fires contactsChanged; accessed on the UI thread
+	private int _generation;
+	private final StringPool _strings = new StringPool(4096); // Shares repeated text between consecutive snapshots
+	private final ListenerRegistry<ContactsCallback> _callbacks = new ListenerRegistry<>(new ContactsCallback[0]);
+	private final ContactsTabView[] _tabViews = new ContactsTabView[Tab.values().length]; // Created on first request
+	private final ContactsLoader.Listener _loaderListener = new ContactsLoader.Listener() {
+		@Override
+		public void onContactsLoaded(int generation, ContactsCursor cursor, ContactsSnapshot snapshot) {
+			install(generation, cursor, snapshot);
+		}
+
+		@Override
+		public void onContactsLoadFailed(int generation) {
+			// Readers requery the list themselves now
+			if (generation == _generation && _changePending) {
+				_changePending = false;
+				fireChanged();
+			}
+		}
+
+		@Override
+		public void onRowsLoaded(int generation, Contact[] rows) {
+			patch(generation, rows);
+		}
+	};
 
 	private static Uri _uri;
 
@@ -55,22 +92,72 @@ public class Contacts {
 
 	//region Package Private Methods
 
-	Contacts(String packageName, Context context, Handler handler) {
+	Contacts(String packageName, String account, Context context, Handler handler) {
+		this(packageName, account, context, handler, null);
+	}
+
+	// The full list is cached per account; nothing is cached when the account is not known
+	Contacts(String packageName, String account, Context context, Handler handler, ContactsQuery query) {
 		_context = context;
+		_query = query != null ? query.copy() : null;
+		_handler = handler;
 		_observer = ContactsObserver.create(this, handler);
+		_loader = ContactsLoader.create(handler);
 		Uri uri = _uri;
 		if (uri == null) {
 			uri = Uri.parse("content://" + packageName + _authoritySuffix + _contactsPath);
 			_uri = uri;
 		}
-		query();
+		// Registered with the resolver rather than with each cursor, which would report every change without the uri of the changed row
+		try {
+			context.getContentResolver().registerContentObserver(uri, true, _observer);
+		} catch (Throwable t) {
+			Log.i("zello sdk", "Error in Contacts.Contacts: " + t.toString());
+		}
+		if (_query == null && account != null) {
+			_cache = new ContactsCache(context, packageName, account);
+		}
+		if (_cache != null && _cache.exists()) {
+			// Serve the cached list once it's read and reconcile it with the app in the background
+			_stale = true;
+			restore();
+			load();
+		} else if (_query != null) {
+			// Filtered lists are created on request from any thread, so the first query runs in the background too
+			load();
+		} else {
+			publish(query());
+		}
 	}
 
 	void close() {
+		Context context = _context;
 		_context = null;
+		ContactsLoader loader = _loader;
+		if (loader != null) {
+			loader.close();
+		}
+		_loader = null;
+		_cache = null;
+		_strings.clear();
+		_callbacks.clear();
+		synchronized (_tabViews) {
+			for (ContactsTabView view : _tabViews) {
+				if (view != null) {
+					view.clear();
+				}
+			}
+		}
 		clean();
 		ContactsObserver observer = _observer;
 		if (observer != null) {
+			if (context != null) {
+				try {
+					context.getContentResolver().unregisterContentObserver(observer);
+				} catch (Throwable t) {
+					Log.i("zello sdk", "Error in Contacts.close: " + t.toString());
+				}
+			}
 			observer.close();
 		}
 		_observer = null;
@@ -78,9 +165,104 @@ public class Contacts {
 
 	void invalidate() {
 		_invalid = true;
+		++_generation;
 
-		for (Events event : Zello.getInstance().events) {
-			event.onContactsChanged();
+		ContactsLoader loader = _loader;
+		// A load that is in flight has readers waiting for its result, so it's restarted rather than cancelled
+		if (hasSnapshotListeners() || !_callbacks.isEmpty() || (loader != null && loader.isLoading())) {
+			// Readers get the old list until the load completes, so the change is announced when the new one is installed
+			_changePending = true;
+			load();
+		} else {
+			_deltaSnapshot = null;
+			// The next read requeries
+			fireChanged();
+		}
+	}
+
+	void getStats(ContactsStats stats) {
+		_statsTracked = true;
+		ContactsSnapshot snapshot = getSnapshot();
+		synchronized (_stats) {
+			if (snapshot != null) {
+				updateStats(snapshot, null, null);
+			}
+			_stats.copyTo(stats);
+		}
+	}
+
+	void startWatching() {
+		if (_watchSnapshot != null) {
+			return;
+		}
+		ContactsSnapshot snapshot = getLoadedSnapshot();
+		if (snapshot != null) {
+			_watchSnapshot = snapshot;
+			return;
+		}
+		decodeBaseline(new Baseline() {
+			@Override
+			public void onDecoded(ContactsSnapshot baseline) {
+				if (_watchSnapshot == null) {
+					_watchSnapshot = baseline;
+				}
+			}
+		});
+	}
+
+	void startViewUpdates(final ContactsTabView view) {
+		ContactsSnapshot snapshot = getLoadedSnapshot();
+		if (snapshot != null) {
+			view.start(snapshot);
+			return;
+		}
+		decodeBaseline(new Baseline() {
+			@Override
+			public void onDecoded(ContactsSnapshot baseline) {
+				if (view.hasListeners()) {
+					view.start(baseline);
+				}
+			}
+		});
+	}
+
+	boolean isRowUri(Uri uri) {
+		Uri collection = _uri;
+		if (collection == null || !Util.emptyIfNull(collection.getAuthority()).equals(uri.getAuthority())) {
+			return false;
+		}
+		List<String> segments = uri.getPathSegments();
+		List<String> collectionSegments = collection.getPathSegments();
+		return segments != null && collectionSegments != null && segments.size() == collectionSegments.size() + 1 &&
+				segments.subList(0, collectionSegments.size()).equals(collectionSegments);
+	}
+
+	// Re-reads the specified rows and patches the current snapshot; returns false if the whole list has to be requeried instead
+	boolean refreshRows(Uri[] uris) {
+		Context context = _context;
+		ContactsLoader loader = _loader;
+		// Filtered lists can't tell if the changed row still matches the query
+		if (_query != null || _invalid || _stale || getLoadedSnapshot() == null || context == null || loader == null || loader.isLoading()) {
+			return false;
+		}
+		loader.loadRows(context.getContentResolver(), uris, _query, _generation, _loaderListener);
+		return true;
+	}
+
+	// Restarting a load that is in progress would keep the cached list from being reconciled while the app state keeps changing
+	void refreshIfStale() {
+		ContactsLoader loader = _loader;
+		if (_stale && loader != null && !loader.isLoading()) {
+			load();
+		}
+	}
+
+	// Called when the account signs out
+	void discardCache() {
+		ContactsCache cache = _cache;
+		_cache = null;
+		if (cache != null) {
+			cache.discard();
 		}
 	}
 
@@ -90,24 +272,53 @@ public class Contacts {
 
 	//region Getters
 
+	/**
+	 * <p>
+	 *     Determines if the contact list was restored from the copy saved by the SDK and hasn't been confirmed by the Zello app yet.
+	 * </p>
+	 * <p>
+	 *     Right after a cold start the Zello app may take a while to answer contact queries. To avoid showing an empty list,
+	 *     the SDK serves the last known contact list until the current one is loaded in the background. The saved copy is read
+	 *     in the background too, and {@link Events#onContactsChanged()} is fired once it's available. When the current list is loaded, it replaces
+	 *     the saved one, {@link Events#onContactsChanged()} is fired again and {@link ContactsDeltaEvents} subscribers receive the differences.
+	 * </p>
+	 * @return boolean indicating whether the contact list may be out of date.
+	 */
+	public boolean isStale() {
+		return _stale;
+	}
+
 	/**
 	 * <p>
 	 *     Returns the number of contacts in the list.
 	 * </p>
 	 * <p>
 	 *     NB: This method may take nontrivial time to execute, so do not call it from the UI thread.
+	 *     Use {@link #loadAsync(ContactsCallback)} to have the SDK load the list in the background.
 	 * </p>
 	 * @return the number of contacts for the user.
      */
 	public int getCount() {
-		check();
-		Cursor cursor = _cursor;
-		if (cursor != null) {
+		for (Source source = current(); source != null; source = replacement(source)) {
+			ContactsSnapshot snapshot = source.snapshot;
+			if (snapshot != null) {
+				return snapshot.getCount();
+			}
+			ContactsCursor cursor = source.cursor;
+			if (cursor == null) {
+				break;
+			}
+			if (!cursor.acquire()) {
+				continue;
+			}
 			try {
 				return cursor.getCount();
 			} catch (Throwable t) {
 				Log.i("zello sdk", "Error in Contacts.getCount: " + t.toString());
+			} finally {
+				cursor.release();
 			}
+			break;
 		}
 		return 0;
 	}
@@ -118,120 +329,713 @@ public class Contacts {
 	 * </p>
 	 * <p>
 	 *     NB: This method may take nontrivial time to execute, so do not call it from the UI thread.
+	 *     Use {@link #loadAsync(ContactsCallback)} to have the SDK load the list in the background.
 	 * </p>
 	 * @param index Index indicating which <code>Contact</code> to retrieve.
 	 * @return <code>Contact</code> at the specified index.
      */
 	public Contact getItem(int index) {
-		check();
-		Cursor cursor = _cursor;
-		if (cursor != null) {
-			cursor.moveToPosition(index);
-			Contact contact = new Contact();
+		return getItem(index, null);
+	}
+
+	/**
+	 * <p>
+	 *     Reads the <code>Contact</code> at the specified index into an existing instance.
+	 * </p>
+	 * <p>
+	 *     Use this method instead of {@link #getItem(int)} when iterating over large lists to avoid allocating a new object for every row.
+	 *     NB: This method may take nontrivial time to execute, so do not call it from the UI thread.
+	 * </p>
+	 * @param index Index indicating which <code>Contact</code> to retrieve.
+	 * @param reuse Nullable; the object to copy data to. A new object is allocated when <code>null</code>.
+	 * @return <code>reuse</code> (or a new <code>Contact</code>) populated with the data at the specified index, or <code>null</code> if the index is not valid.
+	 * @throws UnsupportedOperationException if <code>reuse</code> belongs to a {@link StateSnapshot}.
+	 * @see #getItems(int, int, Contact[])
+	 */
+	public Contact getItem(int index, Contact reuse) {
+		// Checked up front because errors while reading the cursor are only logged
+		if (reuse != null) {
+			reuse.checkWritable();
+		}
+		for (Source source = current(); source != null; source = replacement(source)) {
+			ContactsSnapshot snapshot = source.snapshot;
+			if (snapshot != null) {
+				return snapshot.getItem(index, reuse);
+			}
+			ContactsCursor cursor = source.cursor;
+			if (cursor == null) {
+				break;
+			}
+			if (!cursor.acquire()) {
+				continue;
+			}
 			try {
-				contact._name = cursor.getString(_indexName);
-				contact._fullName = cursor.getString(_indexFullName);
-				contact._displayName = cursor.getString(_indexDisplayName);
-				contact._type = Sdk.intToContactType(cursor.getInt(_indexType));
-				contact._status = Sdk.intToContactStatus(cursor.getInt(_indexStatus));
-				contact._title = cursor.getString(_indexTitle);
-				contact._muted = cursor.getInt(_indexMuted) != 0;
-				switch (contact._type) {
-					case USER:
-					case GATEWAY: {
-						contact._statusMessage = cursor.getString(_indexStatusMessage);
-						break;
+				synchronized (cursor) {
+					if (cursor.moveToPosition(index)) {
+						Contact contact = reuse != null ? reuse : new Contact();
+						cursor.read(contact);
+						return contact;
 					}
-					case CHANNEL: {
-						contact._usersCount = cursor.getInt(_indexUsersCount);
-						break;
+				}
+			} catch (Throwable t) {
+				Log.i("zello sdk", "Error in Contacts.getItem: " + t.toString());
+			} finally {
+				cursor.release();
+			}
+			break;
+		}
+		return null;
+	}
+
+	/**
+	 * <p>
+	 *     Positions a <code>ContactView</code> at the specified index.
+	 * </p>
+	 * <p>
+	 *     The view reads each property of the contact only when it's first requested, so rendering a few properties
+	 *     of many rows is cheaper than reading full <code>Contact</code> objects with {@link #getItem(int, Contact)}.
+	 *     Reuse the same view instance to avoid allocations while scrolling.
+	 *     NB: Reading the properties of the view may take nontrivial time, so do not do it from the UI thread
+	 *     unless the list was loaded with {@link #loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @param index Index indicating which contact to view.
+	 * @param reuse Nullable; the view to position. A new view is allocated when <code>null</code>.
+	 * @return <code>reuse</code> (or a new <code>ContactView</code>) positioned at the specified index, or <code>null</code> if the index is not valid.
+	 * @see ContactView
+	 */
+	public ContactView getView(int index, ContactView reuse) {
+		if (index < 0 || index >= getCount()) {
+			return null;
+		}
+		Source source = _source.get();
+		if (source == null) {
+			return null;
+		}
+		ContactView view = reuse != null ? reuse : new ContactView();
+		view.bind(source.snapshot, source.cursor, index);
+		return view;
+	}
+
+	/**
+	 * <p>
+	 *     Reads a window of consecutive contacts into a caller-supplied array in a single pass.
+	 * </p>
+	 * <p>
+	 *     Existing <code>Contact</code> instances in <code>into</code> are reused; <code>null</code> elements are filled with new objects,
+	 *     so passing the same array on every refresh produces no per-row garbage once the array has been populated.
+	 *     NB: This method may take nontrivial time to execute, so do not call it from the UI thread.
+	 * </p>
+	 * @param from Index of the first <code>Contact</code> to read.
+	 * @param count Maximum number of contacts to read; limited by the length of <code>into</code>.
+	 * @param into The array to copy data to, starting at index <code>0</code>.
+	 * @return The number of contacts read.
+	 * @throws UnsupportedOperationException if an element of <code>into</code> belongs to a {@link StateSnapshot}.
+	 * @see #getItem(int, Contact)
+	 */
+	public int getItems(int from, int count, Contact[] into) {
+		if (into == null || from < 0) {
+			return 0;
+		}
+		count = Math.min(count, into.length);
+		if (count <= 0) {
+			return 0;
+		}
+		for (int i = 0; i < count; ++i) {
+			if (into[i] != null) {
+				into[i].checkWritable();
+			}
+		}
+		int read = 0;
+		for (Source source = current(); source != null; source = replacement(source)) {
+			ContactsSnapshot snapshot = source.snapshot;
+			if (snapshot != null) {
+				for (; read < count && from + read < snapshot.getCount(); ++read) {
+					into[read] = snapshot.getItem(from + read, into[read]);
+				}
+				break;
+			}
+			ContactsCursor cursor = source.cursor;
+			if (cursor == null) {
+				break;
+			}
+			if (!cursor.acquire()) {
+				continue;
+			}
+			try {
+				synchronized (cursor) {
+					if (cursor.moveToPosition(from)) {
+						do {
+							Contact contact = into[read];
+							if (contact == null) {
+								contact = new Contact();
+								into[read] = contact;
+							}
+							cursor.read(contact);
+							++read;
+						} while (read < count && cursor.moveToNext());
 					}
-					case GROUP:
-					case CONVERSATION: {
-						contact._usersCount = cursor.getInt(_indexUsersCount);
-						contact._usersTotal = cursor.getInt(_indexUsersTotal);
-						break;
+				}
+			} catch (Throwable t) {
+				Log.i("zello sdk", "Error in Contacts.getItems: " + t.toString());
+			} finally {
+				cursor.release();
+			}
+			break;
+		}
+		return read;
+	}
+
+	/**
+	 * <p>
+	 *     Finds a contact by its name and type.
+	 * </p>
+	 * <p>
+	 *     The lookup uses a hash index that is built on first use and rebuilt only after the contact list changes,
+	 *     so repeated lookups take constant time.
+	 *     NB: The first call after a change may take nontrivial time to execute, so do not call it from the UI thread
+	 *     unless the list was loaded with {@link #loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @param name The name of the contact as returned by {@link Contact#getName()}.
+	 * @param type The type of the contact.
+	 * @return Nullable; the matching <code>Contact</code>.
+	 */
+	public Contact find(String name, ContactType type) {
+		ContactsSnapshot snapshot = getSnapshot();
+		return snapshot != null ? snapshot.getItem(snapshot.indexOf(name, type)) : null;
+	}
+
+	/**
+	 * <p>
+	 *     Searches contacts by display name, full name and name.
+	 * </p>
+	 * <p>
+	 *     A contact matches when every word of <code>query</code> is the beginning of a word in one of these fields; the comparison is case insensitive.
+	 *     Results are ranked by match quality: matches at the start of the display name come first, followed by matches
+	 *     on other words of the display name, then on the full name and finally on the name. Contacts with the same rank
+	 *     keep their order in the list.
+	 * </p>
+	 * <p>
+	 *     The search uses a word index that is built on first use and rebuilt only after the contact list changes.
+	 *     NB: The first call after a change may take nontrivial time to execute, so do not call it from the UI thread
+	 *     unless the list was loaded with {@link #loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @param query The text to search for.
+	 * @param limit The maximum number of results to return.
+	 * @return List of matching contacts, best matches first.
+	 */
+	public List<Contact> search(CharSequence query, int limit) {
+		ContactsSnapshot snapshot = getSnapshot();
+		if (snapshot == null) {
+			return new ArrayList<>();
+		}
+		ContactsSearchIndex index = _searchIndex;
+		if (index == null || !index.isBuiltFor(snapshot)) {
+			index = new ContactsSearchIndex(snapshot);
+			_searchIndex = index;
+		}
+		// The index reuses its scratch buffers between queries
+		synchronized (index) {
+			return index.search(query, limit);
+		}
+	}
+
+	/**
+	 * <p>
+	 *     Returns the contact list sorted in the specified order.
+	 * </p>
+	 * <p>
+	 *     The SDK keeps the collation keys of display names and the permutations of the list for all {@link ContactsOrder} values,
+	 *     and updates them from the previous ones when the list changes: keys are only computed for new or renamed contacts,
+	 *     and when a few contacts change, only those are moved to their new places. Once the orders are up to date,
+	 *     the returned selection is a view over the current snapshot and no sorting is done.
+	 *     NB: The first call after a change may take nontrivial time to execute, so do not call it from the UI thread
+	 *     unless the list was loaded with {@link #loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @param order The sort order.
+	 * @return Nullable; the sorted contacts, or <code>null</code> if the list could not be read.
+	 * @see ContactsSelection
+	 */
+	public ContactsSelection sorted(ContactsOrder order) {
+		ContactsSnapshot snapshot = getSnapshot();
+		if (snapshot == null || order == null) {
+			return null;
+		}
+		ContactsOrdering ordering = _ordering;
+		if (ordering == null || !ordering.isBuiltFor(snapshot)) {
+			// Racing threads may update the orders twice; both results are identical
+			ordering = new ContactsOrdering(snapshot, ordering);
+			_ordering = ordering;
+		}
+		return ordering.select(order);
+	}
+
+	/**
+	 * <p>
+	 *     Returns the view of the contact list that contains the contacts of the specified tab.
+	 * </p>
+	 * <p>
+	 *     The view is created on first request and kept up to date by the SDK. It shares the snapshot of the list instead of copying
+	 *     the contacts, and its listeners are only notified when contacts of the tab change, so a change to a channel
+	 *     doesn't notify the listeners of the {@link Tab#USERS} view.
+	 * </p>
+	 * @param tab The tab.
+	 * @return Nullable; the view of the tab, or <code>null</code> if <code>tab</code> is <code>null</code>.
+	 * @see ContactsTabView
+	 */
+	public ContactsTabView view(Tab tab) {
+		if (tab == null) {
+			return null;
+		}
+		synchronized (_tabViews) {
+			ContactsTabView view = _tabViews[tab.ordinal()];
+			if (view == null) {
+				view = new ContactsTabView(this, tab);
+				_tabViews[tab.ordinal()] = view;
+			}
+			return view;
+		}
+	}
+
+	/**
+	 * <p>
+	 *     Returns an immutable snapshot of the contact list.
+	 * </p>
+	 * <p>
+	 *     The snapshot does not change when the contact list is updated, can be shared between threads
+	 *     and is much more compact than a list of <code>Contact</code> objects. The same snapshot is returned until the contact list changes.
+	 *     NB: The first call after a change may take nontrivial time to execute, so do not call it from the UI thread
+	 *     unless the list was loaded with {@link #loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @return Nullable; the current snapshot of the contact list, or <code>null</code> if the list could not be read.
+	 * @see ContactsSnapshot
+	 */
+	public ContactsSnapshot getSnapshot() {
+		for (Source source = current(); source != null; source = replacement(source)) {
+			ContactsSnapshot snapshot = source.snapshot;
+			ContactsCursor cursor = source.cursor;
+			if (snapshot != null || cursor == null) {
+				return snapshot;
+			}
+			if (!cursor.acquire()) {
+				continue;
+			}
+			try {
+				synchronized (cursor) {
+					snapshot = source.snapshot;
+					if (snapshot == null) {
+						snapshot = cursor.readAll(_strings);
+						source.snapshot = snapshot;
+						saveToCache(snapshot);
 					}
 				}
-				contact._noDisconnect = (contact._type != ContactType.CHANNEL && contact._type != ContactType.GROUP && contact._type != ContactType.CONVERSATION) ||
-						(_indexNoDisconnect >= 0 && cursor.getInt(_indexNoDisconnect) != 0);
-				return contact;
 			} catch (Throwable t) {
-				Log.i("zello sdk", "Error in Contacts.getItem: " + t.toString());
+				Log.i("zello sdk", "Error in Contacts.getSnapshot: " + t.toString());
+			} finally {
+				cursor.release();
 			}
+			return snapshot;
 		}
 		return null;
 	}
 
 	//endregion
 
+	//region Loading
+
+	/**
+	 * <p>
+	 *     Loads the contact list on an SDK-owned background thread.
+	 * </p>
+	 * <p>
+	 *     The query and the decoding of all rows run on a dedicated worker; <code>callback</code> is then invoked on the UI thread.
+	 *     If the list is already loaded and has not changed since, the callback is posted right away.
+	 *     When the list changes while a load is in progress, the load is cancelled and restarted, so a burst of changes
+	 *     results in a single delivery of the latest data.
+	 * </p>
+	 * @param callback The callback to invoke when the contacts are loaded.
+	 * @see ContactsCallback
+	 * @see Events#onContactsChanged()
+	 */
+	public void loadAsync(ContactsCallback callback) {
+		if (callback == null || _context == null) {
+			return;
+		}
+		_callbacks.add(callback);
+		if (!_invalid && getLoadedSnapshot() != null) {
+			Handler handler = _handler;
+			if (handler != null) {
+				handler.post(new Runnable() {
+					@Override
+					public void run() {
+						if (!_invalid && getLoadedSnapshot() != null) {
+							deliverCallbacks();
+						}
+					}
+				});
+			}
+			return;
+		}
+		ContactsLoader loader = _loader;
+		if (loader != null && !loader.isLoading()) {
+			load();
+		}
+	}
+
+	//endregion
+
 	//endregion
 
 	//region Private Methods
 
-	private void query() {
+	private void install(int generation, ContactsCursor cursor, ContactsSnapshot snapshot) {
+		if (generation != _generation || _context == null) {
+			cursor.close();
+			return;
+		}
+		// The cached list was replaced with the current one, or the list was loaded after a change
+		boolean changed = _stale || _changePending;
+		_stale = false;
+		_changePending = false;
+		_searchIndex = null;
+		publish(new Source(cursor, snapshot));
+		_invalid = false;
+		saveToCache(snapshot);
+
+		if (changed) {
+			fireChanged();
+		}
+
+		updateDelta(snapshot, null, null);
+		updateWatches(snapshot);
+		updateViews(snapshot);
+		deliverCallbacks();
+	}
+
+	private Source query() {
 		Context context = _context;
+		ContactsCursor cursor = null;
 		if (context != null) {
-			Cursor cursor = null;
-			_indexNoDisconnect = -1;
 			try {
-				cursor = context.getContentResolver().query(_uri, null, null, null, null);
-				_indexName = cursor.getColumnIndex(_columnName);
-				_indexFullName = cursor.getColumnIndex(_columnFullName);
-				_indexDisplayName = cursor.getColumnIndex(_columnDisplayName);
-				_indexStatusMessage = cursor.getColumnIndex(_columnStatusMessage);
-				_indexType = cursor.getColumnIndex(_columnType);
-				_indexStatus = cursor.getColumnIndex(_columnStatus);
-				_indexUsersCount = cursor.getColumnIndex(_columnUsersCount);
-				_indexUsersTotal = cursor.getColumnIndex(_columnUsersTotal);
-				_indexTitle = cursor.getColumnIndex(_columnTitle);
-				_indexMuted = cursor.getColumnIndex(_columnMuted);
-				cursor.registerContentObserver(_observer);
+				ContactsQuery query = _query;
+				Cursor c = query == null ? context.getContentResolver().query(_uri, null, null, null, null) :
+						context.getContentResolver().query(_uri, query.getProjection(), query.getSelection(), null, query.getSortOrder());
+				cursor = new ContactsCursor(c);
 			} catch (Throwable t) {
 				if (cursor != null) {
-					try {
-						cursor.close();
-					} catch (Throwable ignored) {
-					}
+					cursor.close();
 					cursor = null;
 				}
 				Log.i("zello sdk", "Error in Contacts.Contacts: " + t.toString());
 			}
-			if (cursor != null) {
-				try {
-					_indexNoDisconnect = cursor.getColumnIndex(_columnNoDisconnect);
-				} catch (Throwable ignore) {
+		}
+		return cursor != null ? new Source(cursor, null) : null;
+	}
+
+	// Reads the cache on the loader thread. The read is queued before the load, so the cached list is published before the current one is installed
+	private void restore() {
+		final ContactsCache cache = _cache;
+		ContactsLoader loader = _loader;
+		final Handler handler = _handler;
+		if (cache == null || loader == null || handler == null) {
+			return;
+		}
+		loader.execute(new Runnable() {
+			@Override
+			public void run() {
+				final ContactsSnapshot cached = cache.read();
+				if (cached == null) {
+					return;
 				}
+				handler.post(new Runnable() {
+					@Override
+					public void run() {
+						// Skipped if the current list was read in the meantime
+						if (!_stale || _context == null || _source.get() != null) {
+							return;
+						}
+						publish(new Source(null, cached));
+						fireChanged();
+						updateDelta(cached, null, null);
+						updateWatches(cached);
+						updateViews(cached);
+					}
+				});
 			}
-			_cursor = cursor;
+		});
+	}
+
+	private void load() {
+		Context context = _context;
+		ContactsLoader loader = _loader;
+		if (context != null && loader != null) {
+			loader.load(context.getContentResolver(), _uri, _query, _strings, _generation, _loaderListener);
 		}
 	}
 
 	private void clean() {
-		Cursor cursor = _cursor;
-		_cursor = null;
-		if (cursor != null) {
-			try {
-				cursor.unregisterContentObserver(_observer);
-			} catch (Throwable t) {
-				Log.i("zello sdk", "Error in Contacts.close: " + t.toString());
+		_searchIndex = null;
+		_ordering = null;
+		_stale = false;
+		publish(null);
+	}
+
+	// Makes the source current and releases the cursor of the previous one unless the new source shares it
+	private void publish(Source source) {
+		Source previous = _source.getAndSet(source);
+		if (previous != null && previous.cursor != null && (source == null || source.cursor != previous.cursor)) {
+			previous.cursor.close();
+		}
+	}
+
+	// Returns the current source, running the query first if the list was invalidated.
+	// While a load is in flight, the existing source is returned and replaced when the load completes, so the query doesn't run twice
+	private Source current() {
+		ContactsLoader loader = _loader;
+		if (_invalid && (loader == null || !loader.isLoading())) {
+			synchronized (_requeryLock) {
+				if (_invalid) {
+					_invalid = false;
+					_searchIndex = null;
+					_stale = false;
+					publish(query());
+				}
 			}
-			try {
-				cursor.close();
-			} catch (Throwable t) {
-				Log.i("zello sdk", "Error in Contacts.close: " + t.toString());
+		}
+		return _source.get();
+	}
+
+	// A source is only closed after it was replaced, so a reader that fails to acquire its cursor retries with the one that replaced it.
+	// Returns null if the source is still current
+	private Source replacement(Source source) {
+		Source current = _source.get();
+		return current != source ? current : null;
+	}
+
+	// Decodes the current rows in the background so that the first change is compared against them.
+	// The worker runs the decoding before any load started later, so the baseline is posted before the changed list is installed
+	private void decodeBaseline(final Baseline callback) {
+		ContactsLoader loader = _loader;
+		final Handler handler = _handler;
+		if (loader == null || handler == null) {
+			return;
+		}
+		loader.execute(new Runnable() {
+			@Override
+			public void run() {
+				final ContactsSnapshot baseline = getSnapshot();
+				if (baseline == null) {
+					return;
+				}
+				handler.post(new Runnable() {
+					@Override
+					public void run() {
+						callback.onDecoded(baseline);
+					}
+				});
+			}
+		});
+	}
+
+	// Returns the decoded rows if they are available without reading the cursor
+	private ContactsSnapshot getLoadedSnapshot() {
+		Source source = _source.get();
+		return source != null ? source.snapshot : null;
+	}
+
+	private void patch(int generation, Contact[] rows) {
+		Source source = _source.get();
+		ContactsSnapshot snapshot = source != null ? source.snapshot : null;
+		if (generation != _generation || _context == null || snapshot == null) {
+			return;
+		}
+		int[] indexes = rows != null ? new int[rows.length] : null;
+		for (int i = 0; indexes != null && i < rows.length; ++i) {
+			indexes[i] = snapshot.indexOf(rows[i]._name, rows[i]._type);
+			if (indexes[i] < 0) {
+				// New contacts change the order of the list
+				indexes = null;
+			}
+		}
+		if (indexes == null) {
+			Zello.getInstance().metrics._contactsInvalidations.incrementAndGet();
+			invalidate();
+			return;
+		}
+		ContactsSnapshot previous = snapshot;
+		snapshot = previous.patch(indexes, rows, _strings);
+		// The cursor is handed over to the new source; it's only used for reading until the next full load
+		publish(new Source(source.cursor, snapshot));
+		_searchIndex = null;
+		saveToCache(snapshot);
+
+		fireChanged();
+		updateDelta(snapshot, previous, distinct(indexes));
+		updateWatches(snapshot);
+		updateViews(snapshot);
+	}
+
+	// Global events are only fired by the full contact list
+	private void fireChanged() {
+		if (_query == null) {
+			Zello.getInstance().events.fire(EventsCall.contactsChanged);
+		}
+	}
+
+	// Writes on the loader thread after a delay; only the latest snapshot is written
+	private void saveToCache(ContactsSnapshot snapshot) {
+		ContactsLoader loader = _loader;
+		if (_cache == null || loader == null || snapshot == null) {
+			return;
+		}
+		if (_unsavedSnapshot.getAndSet(snapshot) == null) {
+			loader.executeDelayed(_cacheWriter, _cacheWriteDelay);
+		}
+	}
+
+	// Listeners that need every new snapshot, so changes have to be loaded in the background
+	private boolean hasSnapshotListeners() {
+		return hasDeltaSubscribers() || _statsTracked || (_query == null && !Zello.getInstance().contactWatches.isEmpty()) || hasViewListeners();
+	}
+
+	private boolean hasViewListeners() {
+		synchronized (_tabViews) {
+			for (ContactsTabView view : _tabViews) {
+				if (view != null && view.hasListeners()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean hasDeltaSubscribers() {
+		return _query == null && !Zello.getInstance().contactsDeltaEvents.isEmpty();
+	}
+
+	// Updates the stats and notifies delta subscribers. A patched snapshot only differs from the one it was patched from
+	// at the specified indexes, so only those rows are compared; both are null for a snapshot that was loaded as a whole
+	private void updateDelta(ContactsSnapshot snapshot, ContactsSnapshot patched, int[] indexes) {
+		if (_statsTracked) {
+			synchronized (_stats) {
+				updateStats(snapshot, patched, indexes);
+			}
+		}
+		if (!hasDeltaSubscribers()) {
+			_deltaSnapshot = null;
+			return;
+		}
+		ContactsSnapshot previous = _deltaSnapshot;
+		if (previous == snapshot) {
+			return;
+		}
+		_deltaSnapshot = snapshot;
+		ContactsDelta delta = patched != null && previous == patched ? ContactsDelta.compute(previous, snapshot, indexes) : ContactsDelta.compute(previous, snapshot);
+		if (delta.isEmpty()) {
+			return;
+		}
+		for (ContactsDeltaEvents event : Zello.getInstance().contactsDeltaEvents.get()) {
+			event.onContactsChanged(delta);
+		}
+	}
+
+	// Looks up only the watched contacts, so the cost doesn't depend on the size of the list
+	private void updateWatches(ContactsSnapshot snapshot) {
+		ContactWatch[] watches = Zello.getInstance().contactWatches.get();
+		if (_query != null || watches.length == 0) {
+			_watchSnapshot = null;
+			return;
+		}
+		// The first installed snapshot becomes the baseline if none was captured when the watch started
+		ContactsSnapshot previous = _watchSnapshot;
+		_watchSnapshot = snapshot;
+		if (previous == null || previous == snapshot) {
+			return;
+		}
+		for (ContactWatch watch : watches) {
+			int previousIndex = previous.indexOf(watch._name, watch._type);
+			int index = snapshot.indexOf(watch._name, watch._type);
+			if (previousIndex >= 0 && index >= 0 && !previous.presenceEquals(previousIndex, snapshot, index)) {
+				watch._listener.onContactChanged(snapshot.getItem(index));
+			}
+		}
+	}
+
+	// Each view compares only the rows of its tab, so changes in other tabs don't notify its listeners
+	private void updateViews(ContactsSnapshot snapshot) {
+		ContactsTabView[] views;
+		synchronized (_tabViews) {
+			views = _tabViews.clone();
+		}
+		for (ContactsTabView view : views) {
+			if (view != null) {
+				view.update(snapshot);
+			}
+		}
+	}
+
+	// Called with _stats locked. Only the patched rows are recounted if the stats are up to date with the snapshot that was patched;
+	// otherwise, for example after a full load, the stats are rebuilt
+	private void updateStats(ContactsSnapshot snapshot, ContactsSnapshot patched, int[] indexes) {
+		ContactsSnapshot previous = _statsSnapshot;
+		if (snapshot == previous) {
+			return;
+		}
+		if (patched != null && patched == previous) {
+			for (int index : indexes) {
+				_stats.update(previous, index, -1);
+				_stats.update(snapshot, index, 1);
 			}
+		} else {
+			_stats.rebuild(snapshot);
 		}
+		_statsSnapshot = snapshot;
 	}
 
-	private void check() {
-		if (_invalid) {
-			_invalid = false;
-			clean();
-			query();
+	// The same row may be reported by more than one uri; there are only a few patched rows
+	private static int[] distinct(int[] indexes) {
+		int[] unique = new int[indexes.length];
+		int count = 0;
+		for (int index : indexes) {
+			int i = 0;
+			while (i < count && unique[i] != index) {
+				++i;
+			}
+			if (i == count) {
+				unique[count++] = index;
+			}
+		}
+		return count == unique.length ? unique : Arrays.copyOf(unique, count);
+	}
+
+	private void deliverCallbacks() {
+		if (_callbacks.isEmpty()) {
+			return;
+		}
+		for (ContactsCallback callback : _callbacks.clear()) {
+			callback.onContactsLoaded(this);
 		}
 	}
 
 	//endregion
 
+	// Receives the rows decoded by decodeBaseline on the UI thread
+	private interface Baseline {
+
+		void onDecoded(ContactsSnapshot baseline);
+
+	}
+
+	// Cursor and its decoded rows, published together
+	private static class Source {
+
+		final ContactsCursor cursor; // Nullable; released when the source is replaced
+		volatile ContactsSnapshot snapshot; // Nullable; decoded on demand
+
+		Source(ContactsCursor cursor, ContactsSnapshot snapshot) {
+			this.cursor = cursor;
+			this.snapshot = snapshot;
+		}
+
+	}
+
 }
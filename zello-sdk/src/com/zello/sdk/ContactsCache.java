@@ -0,0 +1,167 @@
+package com.zello.sdk;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Keeps the last known contact list in a private file so that it can be shown right after a cold start,
+ * before the ZelloWork app is ready to answer contact queries.
+ * <p>
+ * Each account has its own file, so a user who signs in never sees the contacts of the previous one.
+ * The file of an account is deleted when the account signs out.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsCache {
+
+	//region Private Properties
+
+	private static final String _fileNamePrefix = "zello_sdk_contacts_";
+	private static final String _preferencesName = "zello_sdk_contacts"; // Last signed in account by package name
+
+	private final File _file;
+	private long _writtenVersion = -1; // Version of the last snapshot written to the file
+	private boolean _discarded; // The account signed out; writes that were queued before are dropped
+
+	//endregion
+
+	//region Package Private Methods
+
+	// The account is an opaque key that is safe to use in a file name
+	ContactsCache(Context context, String packageName, String account) {
+		_file = getFile(context, packageName, account);
+	}
+
+	static void delete(Context context, String packageName, String account) {
+		File file = getFile(context, packageName, account);
+		if (file != null) {
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+	}
+
+	// Returns the account that was signed in when the SDK last ran, so that its list can be served before the app reports the account
+	static String readAccount(Context context, String packageName) {
+		try {
+			return context.getSharedPreferences(_preferencesName, Context.MODE_PRIVATE).getString(packageName, null);
+		} catch (Throwable t) {
+			Log.i("zello sdk", "Error in ContactsCache.readAccount: " + t.toString());
+		}
+		return null;
+	}
+
+	// Null forgets the account
+	static void writeAccount(Context context, String packageName, String account) {
+		try {
+			SharedPreferences.Editor editor = context.getSharedPreferences(_preferencesName, Context.MODE_PRIVATE).edit();
+			if (account != null) {
+				editor.putString(packageName, account);
+			} else {
+				editor.remove(packageName);
+			}
+			editor.apply();
+		} catch (Throwable t) {
+			Log.i("zello sdk", "Error in ContactsCache.writeAccount: " + t.toString());
+		}
+	}
+
+	boolean exists() {
+		File file = _file;
+		return file != null && file.isFile();
+	}
+
+	// Maps and decodes the file; call on a background thread. Returns null if there is no usable cached snapshot
+	ContactsSnapshot read() {
+		File file = _file;
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return ContactsSnapshot.readFrom(buffer);
+		} catch (IOException e) {
+			// The file is corrupt or truncated
+			Log.i("zello sdk", "Error in ContactsCache.read: " + e.toString());
+			delete();
+		} finally {
+			if (raf != null) {
+				try {
+					raf.close();
+				} catch (Throwable ignored) {
+				}
+			}
+		}
+		return null;
+	}
+
+	// Can be called from any thread; writes are serialized
+	synchronized void write(ContactsSnapshot snapshot) {
+		File file = _file;
+		if (file == null || _discarded || snapshot == null || snapshot.getVersion() == _writtenVersion) {
+			return;
+		}
+		// Write to a temporary file first so that a crash can't leave a partially written cache behind
+		File temp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			snapshot.writeTo(out);
+			out.close();
+			out = null;
+			if (!temp.renameTo(file)) {
+				throw new Exception("Failed to rename " + temp.getName());
+			}
+			_writtenVersion = snapshot.getVersion();
+		} catch (Throwable t) {
+			Log.i("zello sdk", "Error in ContactsCache.write: " + t.toString());
+			if (out != null) {
+				try {
+					out.close();
+				} catch (Throwable ignored) {
+				}
+			}
+			//noinspection ResultOfMethodCallIgnored
+			temp.delete();
+		}
+	}
+
+	synchronized void delete() {
+		File file = _file;
+		if (file != null) {
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+		_writtenVersion = -1;
+	}
+
+	// Deletes the file and stops writing it
+	synchronized void discard() {
+		_discarded = true;
+		delete();
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private static File getFile(Context context, String packageName, String account) {
+		File dir = context.getFilesDir();
+		return dir != null ? new File(dir, _fileNamePrefix + packageName + "_" + account + ".bin") : null;
+	}
+
+	//endregion
+
+}
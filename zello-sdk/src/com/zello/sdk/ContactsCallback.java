@@ -0,0 +1,24 @@
+package com.zello.sdk;
+
+/**
+ * The <code>ContactsCallback</code> interface receives the result of an asynchronous {@link Contacts} load.
+ * @see Contacts#loadAsync(ContactsCallback)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface ContactsCallback {
+
+	/**
+	 * <p>
+	 * Called when the contact list has been queried and decoded on the SDK worker thread.
+	 * </p>
+	 * <p>
+	 * This method is invoked on the UI thread. Until the next <code>Events.onContactsChanged()</code>,
+	 * the <code>getCount()</code> and <code>getItem()</code> methods of <code>contacts</code> return the loaded
+	 * data without querying the ZelloWork app, so they are safe to call from the UI thread.
+	 * </p>
+	 *
+	 * @param contacts The loaded contacts.
+	 */
+	void onContactsLoaded(Contacts contacts);
+
+}
@@ -0,0 +1,203 @@
+package com.zello.sdk;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes contact rows from a provider cursor.
+ * <p>
+ * The cursor is reference counted: the owner holds the initial reference and releases it with {@link #close()},
+ * readers on other threads take their own reference with {@link #acquire()} and give it back with {@link #release()}.
+ * The underlying cursor is closed when the last reference is released.
+ * The position of the cursor is shared, so readers have to synchronize on the <code>ContactsCursor</code> while they move and read it.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsCursor {
+
+	//region Private Properties
+
+	private final Cursor _cursor;
+	private final int _indexName;
+	private final int _indexFullName;
+	private final int _indexDisplayName;
+	private final int _indexStatusMessage;
+	private final int _indexType;
+	private final int _indexStatus;
+	private final int _indexUsersCount;
+	private final int _indexUsersTotal;
+	private final int _indexTitle;
+	private final int _indexMuted;
+	private final int _indexNoDisconnect; // Not available if the client app is old - has to be at least 3.19
+	private final AtomicInteger _references = new AtomicInteger(1);
+	private static volatile boolean _noDisconnectAvailable; // A cursor returned by the client app had the no disconnect column
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsCursor(Cursor cursor) {
+		_cursor = cursor;
+		_indexName = cursor.getColumnIndex(ContactsQuery.Column.NAME._name);
+		_indexFullName = cursor.getColumnIndex(ContactsQuery.Column.FULL_NAME._name);
+		_indexDisplayName = cursor.getColumnIndex(ContactsQuery.Column.DISPLAY_NAME._name);
+		_indexStatusMessage = cursor.getColumnIndex(ContactsQuery.Column.STATUS_MESSAGE._name);
+		_indexType = cursor.getColumnIndex(ContactsQuery.Column.TYPE._name);
+		_indexStatus = cursor.getColumnIndex(ContactsQuery.Column.STATUS._name);
+		_indexUsersCount = cursor.getColumnIndex(ContactsQuery.Column.USERS_COUNT._name);
+		_indexUsersTotal = cursor.getColumnIndex(ContactsQuery.Column.USERS_TOTAL._name);
+		_indexTitle = cursor.getColumnIndex(ContactsQuery.Column.TITLE._name);
+		_indexMuted = cursor.getColumnIndex(ContactsQuery.Column.MUTED._name);
+		int indexNoDisconnect = -1;
+		try {
+			indexNoDisconnect = cursor.getColumnIndex(ContactsQuery.Column.NO_DISCONNECT._name);
+		} catch (Throwable ignore) {
+		}
+		_indexNoDisconnect = indexNoDisconnect;
+		if (indexNoDisconnect >= 0) {
+			_noDisconnectAvailable = true;
+		}
+	}
+
+	// Queries that project a column the client app doesn't have fail
+	static boolean isNoDisconnectAvailable() {
+		return _noDisconnectAvailable;
+	}
+
+	int getCount() {
+		return _cursor.getCount();
+	}
+
+	int getPosition() {
+		return _cursor.getPosition();
+	}
+
+	boolean moveToPosition(int position) {
+		return _cursor.moveToPosition(position);
+	}
+
+	boolean moveToNext() {
+		return _cursor.moveToNext();
+	}
+
+	void read(Contact contact) {
+		contact.reset();
+		contact._name = readName();
+		contact._fullName = readFullName();
+		contact._displayName = readDisplayName();
+		contact._type = readType();
+		contact._status = readStatus();
+		contact._title = readTitle();
+		contact._muted = readMuted();
+		contact._statusMessage = readStatusMessage(contact._type);
+		contact._usersCount = readUsersCount(contact._type);
+		contact._usersTotal = readUsersTotal(contact._type);
+		contact._noDisconnect = readNoDisconnect(contact._type);
+	}
+
+	// Column readers for the current row; values that are not defined for the contact type are not read
+
+	String readName() {
+		return getString(_indexName);
+	}
+
+	String readFullName() {
+		return getString(_indexFullName);
+	}
+
+	String readDisplayName() {
+		return getString(_indexDisplayName);
+	}
+
+	ContactType readType() {
+		return Sdk.intToContactType(getInt(_indexType));
+	}
+
+	ContactStatus readStatus() {
+		return Sdk.intToContactStatus(getInt(_indexStatus));
+	}
+
+	String readTitle() {
+		return getString(_indexTitle);
+	}
+
+	boolean readMuted() {
+		return getInt(_indexMuted) != 0;
+	}
+
+	String readStatusMessage(ContactType type) {
+		return type == ContactType.USER || type == ContactType.GATEWAY ? getString(_indexStatusMessage) : null;
+	}
+
+	int readUsersCount(ContactType type) {
+		return type == ContactType.CHANNEL || type == ContactType.GROUP || type == ContactType.CONVERSATION ? getInt(_indexUsersCount) : 0;
+	}
+
+	int readUsersTotal(ContactType type) {
+		return type == ContactType.GROUP || type == ContactType.CONVERSATION ? getInt(_indexUsersTotal) : 0;
+	}
+
+	boolean readNoDisconnect(ContactType type) {
+		return (type != ContactType.CHANNEL && type != ContactType.GROUP && type != ContactType.CONVERSATION) || getInt(_indexNoDisconnect) != 0;
+	}
+
+	// Returns null if the cursor could not be read completely
+	ContactsSnapshot readAll(StringPool pool) {
+		int count = getCount();
+		ContactsSnapshot.Builder builder = new ContactsSnapshot.Builder(count, pool);
+		Contact contact = new Contact();
+		if (moveToPosition(0)) {
+			do {
+				read(contact);
+				builder.add(contact);
+			} while (builder.getCount() < count && moveToNext());
+		}
+		return builder.getCount() == count ? builder.build() : null;
+	}
+
+	// Takes a reference for reading; fails if the cursor was already closed
+	boolean acquire() {
+		while (true) {
+			int references = _references.get();
+			if (references <= 0) {
+				return false;
+			}
+			if (_references.compareAndSet(references, references + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void release() {
+		if (_references.decrementAndGet() == 0) {
+			try {
+				_cursor.close();
+			} catch (Throwable t) {
+				Log.i("zello sdk", "Error in ContactsCursor.release: " + t.toString());
+			}
+		}
+	}
+
+	// Releases the owner's reference; the cursor is closed when the last reader is done with it
+	void close() {
+		release();
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	// Columns that are not projected by the query have a negative index and are skipped
+	private String getString(int index) {
+		return index >= 0 ? _cursor.getString(index) : null;
+	}
+
+	private int getInt(int index) {
+		return index >= 0 ? _cursor.getInt(index) : 0;
+	}
+
+	//endregion
+
+}
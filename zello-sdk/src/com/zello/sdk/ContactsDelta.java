@@ -0,0 +1,116 @@
+package com.zello.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ *     The <code>ContactsDelta</code> class describes the difference between two consecutive snapshots of {@link Contacts}.
+ * </p>
+ * <p>
+ *     Contacts are matched by their name and {@link ContactType}. A contact that is present in both snapshots
+ *     but has any of its properties modified is reported as changed.
+ * </p>
+ * @see ContactsDeltaEvents
+ * @see Zello#subscribeToContactsDelta(ContactsDeltaEvents)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ContactsDelta {
+
+	//region Private Properties
+
+	private final List<Contact> _added;
+	private final List<Contact> _removed;
+	private final List<Contact> _changed;
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsDelta(List<Contact> added, List<Contact> removed, List<Contact> changed) {
+		_added = Collections.unmodifiableList(added);
+		_removed = Collections.unmodifiableList(removed);
+		_changed = Collections.unmodifiableList(changed);
+	}
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the contacts that were not present in the previous snapshot.
+	 * @return Read-only list of added contacts.
+	 */
+	public List<Contact> getAdded() {
+		return _added;
+	}
+
+	/**
+	 * Returns the contacts that are no longer present in the new snapshot.
+	 * @return Read-only list of removed contacts with their last known values.
+	 */
+	public List<Contact> getRemoved() {
+		return _removed;
+	}
+
+	/**
+	 * Returns the contacts that are present in both snapshots but whose properties changed.
+	 * @return Read-only list of changed contacts with their new values.
+	 */
+	public List<Contact> getChanged() {
+		return _changed;
+	}
+
+	/**
+	 * Determines if there are no differences between the two snapshots.
+	 * @return boolean indicating if the delta is empty.
+	 */
+	public boolean isEmpty() {
+		return _added.isEmpty() && _removed.isEmpty() && _changed.isEmpty();
+	}
+
+	//endregion
+
+	//region Package Private Static Methods
+
+	static ContactsDelta compute(ContactsSnapshot previous, ContactsSnapshot current) {
+		ArrayList<Contact> added = new ArrayList<>();
+		ArrayList<Contact> removed = new ArrayList<>();
+		ArrayList<Contact> changed = new ArrayList<>();
+		int previousCount = previous != null ? previous.getCount() : 0;
+		boolean[] matched = new boolean[previousCount];
+		int currentCount = current != null ? current.getCount() : 0;
+		for (int i = 0; i < currentCount; ++i) {
+			int old = previous != null ? previous.indexOf(current.getName(i), current.getType(i)) : -1;
+			if (old < 0 || matched[old]) {
+				added.add(current.getItem(i));
+				continue;
+			}
+			matched[old] = true;
+			if (!previous.rowEquals(old, current, i)) {
+				changed.add(current.getItem(i));
+			}
+		}
+		for (int i = 0; i < previousCount; ++i) {
+			if (!matched[i]) {
+				removed.add(previous.getItem(i));
+			}
+		}
+		return new ContactsDelta(added, removed, changed);
+	}
+
+	// The rows of a patched snapshot only differ from the previous snapshot at the specified distinct indexes
+	static ContactsDelta compute(ContactsSnapshot previous, ContactsSnapshot current, int[] indexes) {
+		ArrayList<Contact> changed = new ArrayList<>();
+		for (int index : indexes) {
+			if (!previous.rowEquals(index, current, index)) {
+				changed.add(current.getItem(index));
+			}
+		}
+		return new ContactsDelta(new ArrayList<Contact>(), new ArrayList<Contact>(), changed);
+	}
+
+	//endregion
+
+}
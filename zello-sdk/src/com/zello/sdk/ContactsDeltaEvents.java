@@ -0,0 +1,25 @@
+package com.zello.sdk;
+
+/**
+ * The <code>ContactsDeltaEvents</code> interface enables monitoring of incremental changes to the {@link Contacts} list.
+ * @see Zello#subscribeToContactsDelta(ContactsDeltaEvents)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface ContactsDeltaEvents {
+
+	/**
+	 * <p>
+	 * Called when the {@link Contacts} for the user change, with the set of contacts that were added, removed or modified.
+	 * </p>
+	 * <p>
+	 * This method is invoked on the UI thread and is not called when the delta is empty.
+	 * The first delta delivered after subscribing lists all current contacts as added.
+	 * </p>
+	 *
+	 * @param delta The difference between the previous and the new contacts snapshot.
+	 * @see ContactsDelta
+	 * @see Events#onContactsChanged()
+	 */
+	void onContactsChanged(ContactsDelta delta);
+
+}
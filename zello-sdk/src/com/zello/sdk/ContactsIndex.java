@@ -0,0 +1,79 @@
+package com.zello.sdk;
+
+/**
+ * Open-addressing hash index that maps a contact name and type to its position in a snapshot.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsIndex {
+
+	//region Private Properties
+
+	private final ContactsSnapshot _snapshot;
+	private final int[] _slots; // Row index + 1; 0 marks an empty slot
+	private final int _mask;
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsIndex(ContactsSnapshot snapshot) {
+		_snapshot = snapshot;
+		int count = snapshot.getCount();
+		int capacity = 4;
+		while (capacity < count * 2) {
+			capacity <<= 1;
+		}
+		_slots = new int[capacity];
+		_mask = capacity - 1;
+		for (int i = 0; i < count; ++i) {
+			String name = snapshot.getName(i);
+			if (name == null) {
+				continue;
+			}
+			int slot = hash(name, snapshot.getType(i)) & _mask;
+			while (_slots[slot] != 0) {
+				slot = (slot + 1) & _mask;
+			}
+			_slots[slot] = i + 1;
+		}
+	}
+
+	// Shares the slots of an index built for a snapshot with the same names and types at the same positions
+	private ContactsIndex(ContactsSnapshot snapshot, ContactsIndex source) {
+		_snapshot = snapshot;
+		_slots = source._slots;
+		_mask = source._mask;
+	}
+
+	// Returns an index for a patched copy of the snapshot without keeping the original snapshot reachable
+	ContactsIndex retarget(ContactsSnapshot snapshot) {
+		return new ContactsIndex(snapshot, this);
+	}
+
+	int indexOf(String name, ContactType type) {
+		if (name == null || type == null) {
+			return -1;
+		}
+		int slot = hash(name, type) & _mask;
+		int index;
+		while ((index = _slots[slot]) != 0) {
+			if (_snapshot.getType(index - 1) == type && name.equals(_snapshot.getName(index - 1))) {
+				return index - 1;
+			}
+			slot = (slot + 1) & _mask;
+		}
+		return -1;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private static int hash(String name, ContactType type) {
+		int h = name.hashCode() * 31 + type.ordinal();
+		return h ^ (h >>> 16);
+	}
+
+	//endregion
+
+}
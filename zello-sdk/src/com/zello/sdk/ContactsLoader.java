@@ -0,0 +1,304 @@
+package com.zello.sdk;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.ArrayList;
+
+/**
+ * Runs contact queries and row decoding on a dedicated worker thread.
+ * Only the most recent load is kept; starting a new one cancels the one in flight.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+abstract class ContactsLoader {
+
+	interface Listener {
+
+		// Invoked on the handler thread passed to the loader
+		void onContactsLoaded(int generation, ContactsCursor cursor, ContactsSnapshot snapshot);
+
+		// Invoked on the handler thread passed to the loader when the query or the decoding failed
+		void onContactsLoadFailed(int generation);
+
+		// Invoked on the handler thread passed to the loader; rows is null if any of the rows could not be read
+		void onRowsLoaded(int generation, Contact[] rows);
+
+	}
+
+	//region Private Properties
+
+	private final Handler _handler;
+	private HandlerThread _thread;
+	private Handler _worker;
+	private boolean _closed; // A closed loader doesn't start the worker again
+	private volatile Task _task;
+
+	//endregion
+
+	ContactsLoader(Handler handler) {
+		_handler = handler;
+	}
+
+	//region Package Private Methods
+
+	void load(final ContentResolver resolver, final Uri uri, final ContactsQuery query, final StringPool pool, final int generation, final Listener listener) {
+		cancel();
+		Handler worker = getWorker();
+		if (worker == null || resolver == null || uri == null || listener == null) {
+			return;
+		}
+		final Task task = new Task(createSignal());
+		_task = task;
+		worker.post(new Runnable() {
+			@Override
+			public void run() {
+				runTask(task, resolver, uri, query, pool, generation, listener);
+			}
+		});
+	}
+
+	void loadRows(final ContentResolver resolver, final Uri[] uris, final ContactsQuery query, final int generation, final Listener listener) {
+		cancel();
+		Handler worker = getWorker();
+		if (worker == null || resolver == null || uris == null || listener == null) {
+			return;
+		}
+		final Task task = new Task(createSignal());
+		_task = task;
+		worker.post(new Runnable() {
+			@Override
+			public void run() {
+				runRowsTask(task, resolver, uris, query, generation, listener);
+			}
+		});
+	}
+
+	// Runs a task on the worker thread after any load that is already queued
+	void execute(Runnable runnable) {
+		Handler worker = getWorker();
+		if (worker != null && runnable != null) {
+			worker.post(runnable);
+		}
+	}
+
+	// Runs a task on the worker thread after the specified delay in milliseconds
+	void executeDelayed(Runnable runnable, long delay) {
+		Handler worker = getWorker();
+		if (worker != null && runnable != null) {
+			worker.postDelayed(runnable, delay);
+		}
+	}
+
+	boolean isLoading() {
+		return _task != null;
+	}
+
+	void cancel() {
+		Task task = _task;
+		_task = null;
+		if (task != null) {
+			task.cancelled = true;
+			cancelSignal(task.signal);
+		}
+	}
+
+	void close() {
+		cancel();
+		HandlerThread thread;
+		synchronized (this) {
+			thread = _thread;
+			_thread = null;
+			_worker = null;
+			_closed = true;
+		}
+		if (thread != null) {
+			thread.quit();
+		}
+	}
+
+	static ContactsLoader create(Handler handler) {
+		int api = Util.getApiLevel();
+		if (api >= Build.VERSION_CODES.JELLY_BEAN) {
+			return new ContactsLoader16(handler);
+		} else {
+			return new ContactsLoader03(handler);
+		}
+	}
+
+	//endregion
+
+	//region Protected Methods
+
+	protected abstract Object createSignal();
+
+	protected abstract void cancelSignal(Object signal);
+
+	protected abstract Cursor query(ContentResolver resolver, Uri uri, String[] projection, String selection, String sortOrder, Object signal);
+
+	//endregion
+
+	//region Private Methods
+
+	// Called from any thread that loads, reads or saves the list
+	private synchronized Handler getWorker() {
+		if (_worker == null && !_closed) {
+			HandlerThread thread = new HandlerThread("zello sdk contacts", Process.THREAD_PRIORITY_BACKGROUND);
+			thread.start();
+			_thread = thread;
+			_worker = new Handler(thread.getLooper());
+		}
+		return _worker;
+	}
+
+	// Runs on the worker thread
+	private void runTask(final Task task, ContentResolver resolver, Uri uri, ContactsQuery query, StringPool pool, final int generation, final Listener listener) {
+		if (task.cancelled) {
+			return;
+		}
+		Cursor c = null;
+		ContactsCursor cursor = null;
+		ContactsSnapshot snapshot = null;
+		try {
+			c = query(resolver, uri, query != null ? query.getProjection() : null, query != null ? query.getSelection() : null,
+					query != null ? query.getSortOrder() : null, task.signal);
+			if (c != null) {
+				cursor = new ContactsCursor(c);
+				int count = cursor.getCount();
+				ContactsSnapshot.Builder builder = new ContactsSnapshot.Builder(count, pool);
+				Contact contact = new Contact();
+				if (cursor.moveToPosition(0)) {
+					do {
+						cursor.read(contact);
+						builder.add(contact);
+					} while (!task.cancelled && builder.getCount() < count && cursor.moveToNext());
+				}
+				if (builder.getCount() == count) {
+					snapshot = builder.build();
+				}
+			}
+		} catch (Throwable t) {
+			if (!task.cancelled) {
+				Log.i("zello sdk", "Error in ContactsLoader.runTask: " + t.toString());
+			}
+			snapshot = null;
+		}
+		if (task.cancelled || cursor == null || snapshot == null) {
+			if (cursor != null) {
+				cursor.close();
+			} else if (c != null) {
+				try {
+					c.close();
+				} catch (Throwable ignored) {
+				}
+			}
+			if (!task.cancelled) {
+				// Let the next load or row refresh start
+				_handler.post(new Runnable() {
+					@Override
+					public void run() {
+						if (_task == task) {
+							_task = null;
+							listener.onContactsLoadFailed(generation);
+						}
+					}
+				});
+			}
+			return;
+		}
+		final ContactsCursor result = cursor;
+		final ContactsSnapshot resultSnapshot = snapshot;
+		boolean posted = _handler.post(new Runnable() {
+			@Override
+			public void run() {
+				if (task.cancelled || _task != task) {
+					result.close();
+					return;
+				}
+				_task = null;
+				listener.onContactsLoaded(generation, result, resultSnapshot);
+			}
+		});
+		if (!posted) {
+			cursor.close();
+		}
+	}
+
+	// Runs on the worker thread
+	private void runRowsTask(final Task task, ContentResolver resolver, Uri[] uris, ContactsQuery query, final int generation, final Listener listener) {
+		if (task.cancelled) {
+			return;
+		}
+		ArrayList<Contact> rows = new ArrayList<>();
+		for (Uri uri : uris) {
+			Cursor c = null;
+			ContactsCursor cursor = null;
+			try {
+				c = query(resolver, uri, query != null ? query.getProjection() : null, null, null, task.signal);
+				if (c == null) {
+					rows = null;
+					break;
+				}
+				cursor = new ContactsCursor(c);
+				if (!cursor.moveToPosition(0)) {
+					// The row is gone; only a full requery can tell which contact was removed
+					rows = null;
+					break;
+				}
+				do {
+					Contact contact = new Contact();
+					cursor.read(contact);
+					rows.add(contact);
+				} while (cursor.moveToNext());
+			} catch (Throwable t) {
+				if (!task.cancelled) {
+					Log.i("zello sdk", "Error in ContactsLoader.runRowsTask: " + t.toString());
+				}
+				rows = null;
+				break;
+			} finally {
+				if (cursor != null) {
+					cursor.close();
+				} else if (c != null) {
+					try {
+						c.close();
+					} catch (Throwable ignored) {
+					}
+				}
+			}
+			if (task.cancelled) {
+				return;
+			}
+		}
+		final Contact[] result = rows != null ? rows.toArray(new Contact[rows.size()]) : null;
+		_handler.post(new Runnable() {
+			@Override
+			public void run() {
+				if (task.cancelled || _task != task) {
+					return;
+				}
+				_task = null;
+				listener.onRowsLoaded(generation, result);
+			}
+		});
+	}
+
+	//endregion
+
+	private static class Task {
+
+		final Object signal;
+		volatile boolean cancelled;
+
+		Task(Object signal) {
+			this.signal = signal;
+		}
+
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.zello.sdk;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsLoader03 extends ContactsLoader {
+
+	ContactsLoader03(Handler handler) {
+		super(handler);
+	}
+
+	@Override
+	protected Object createSignal() {
+		return null;
+	}
+
+	@Override
+	protected void cancelSignal(Object signal) {
+	}
+
+	@Override
+	protected Cursor query(ContentResolver resolver, Uri uri, String[] projection, String selection, String sortOrder, Object signal) {
+		return resolver.query(uri, projection, selection, null, sortOrder);
+	}
+
+}
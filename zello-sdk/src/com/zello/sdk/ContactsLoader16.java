@@ -0,0 +1,36 @@
+package com.zello.sdk;
+
+import android.annotation.TargetApi;
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.CancellationSignal;
+import android.os.Handler;
+
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsLoader16 extends ContactsLoader {
+
+	ContactsLoader16(Handler handler) {
+		super(handler);
+	}
+
+	@Override
+	protected Object createSignal() {
+		return new CancellationSignal();
+	}
+
+	@Override
+	protected void cancelSignal(Object signal) {
+		if (signal instanceof CancellationSignal) {
+			((CancellationSignal) signal).cancel();
+		}
+	}
+
+	@Override
+	protected Cursor query(ContentResolver resolver, Uri uri, String[] projection, String selection, String sortOrder, Object signal) {
+		return resolver.query(uri, projection, selection, null, sortOrder, (CancellationSignal) signal);
+	}
+
+}
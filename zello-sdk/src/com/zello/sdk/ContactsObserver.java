@@ -1,28 +1,93 @@
 package com.zello.sdk;
 
 import android.database.ContentObserver;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Handler;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
 
 @SuppressWarnings({"WeakerAccess", "unused"})
 abstract class ContactsObserver extends ContentObserver {
 
+	// Coalescing window and the maximum delay of the first notification in a burst; 0 disables coalescing
+	private static volatile long _coalesceWindow;
+	private static volatile long _coalesceMaxLatency;
+	// Above this number of changed rows a full requery is cheaper than reading the rows one by one
+	private static final int _maxPendingRows = 16;
+
 	private Contacts _contacts;
+	private final Handler _handler;
+	private long _pendingSince = -1; // Uptime of the first notification merged into the pending invalidation
+	private final ArrayList<Uri> _pendingRows = new ArrayList<>(); // Rows changed since the last flush
+	private boolean _pendingAll; // The whole list changed since the last flush
+	private final Runnable _flush = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
 
 	ContactsObserver(Contacts contacts, Handler handler) {
 		super(handler);
 		_contacts = contacts;
+		_handler = handler;
 	}
 
 	void close() {
 		_contacts = null;
+		_pendingSince = -1;
+		_pendingRows.clear();
+		_pendingAll = false;
+		Handler handler = _handler;
+		if (handler != null) {
+			handler.removeCallbacks(_flush);
+		}
 	}
 
 	protected void invalidate() {
+		invalidate(null);
+	}
+
+	// A row-specific uri only refreshes that row; a null or collection-level uri invalidates the whole list
+	protected void invalidate(Uri uri) {
 		Contacts contacts = _contacts;
-		if (contacts != null) {
-			contacts.invalidate();
+		if (contacts == null) {
+			return;
+		}
+		if (!_pendingAll) {
+			if (uri != null && contacts.isRowUri(uri) && _pendingRows.size() < _maxPendingRows) {
+				if (!_pendingRows.contains(uri)) {
+					_pendingRows.add(uri);
+				}
+			} else {
+				_pendingAll = true;
+				_pendingRows.clear();
+			}
 		}
+		Metrics metrics = Zello.getInstance().metrics;
+		metrics._contactsNotifications.incrementAndGet();
+		long window = _coalesceWindow;
+		Handler handler = _handler;
+		if (window <= 0 || handler == null) {
+			flush();
+			return;
+		}
+		long now = SystemClock.uptimeMillis();
+		if (_pendingSince < 0) {
+			_pendingSince = now;
+		} else {
+			metrics._contactsNotificationsMerged.incrementAndGet();
+		}
+		long deadline = Math.min(now + window, _pendingSince + Math.max(window, _coalesceMaxLatency));
+		handler.removeCallbacks(_flush);
+		handler.postDelayed(_flush, Math.max(0, deadline - now));
+	}
+
+	static void setCoalescing(long window, long maxLatency) {
+		_coalesceWindow = Math.max(0, window);
+		_coalesceMaxLatency = Math.max(0, maxLatency);
 	}
 
 	static ContactsObserver create(Contacts contacts, Handler handler) {
@@ -34,4 +99,21 @@ abstract class ContactsObserver extends ContentObserver {
 		}
 	}
 
+	private void flush() {
+		_pendingSince = -1;
+		Uri[] rows = _pendingAll ? null : _pendingRows.toArray(new Uri[_pendingRows.size()]);
+		_pendingRows.clear();
+		_pendingAll = false;
+		Contacts contacts = _contacts;
+		if (contacts == null) {
+			return;
+		}
+		if (rows != null && rows.length > 0 && contacts.refreshRows(rows)) {
+			Zello.getInstance().metrics._contactsRowRefreshes.addAndGet(rows.length);
+			return;
+		}
+		Zello.getInstance().metrics._contactsInvalidations.incrementAndGet();
+		contacts.invalidate();
+	}
+
 }
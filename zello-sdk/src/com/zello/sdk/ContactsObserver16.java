@@ -12,7 +12,7 @@ class ContactsObserver16 extends ContactsObserver {
 
 	@Override
 	public void onChange(boolean selfChange, Uri uri) {
-		invalidate();
+		invalidate(uri);
 	}
 
 }
@@ -0,0 +1,24 @@
+package com.zello.sdk;
+
+/**
+ * The <code>ContactsOrder</code> enum represents the sort orders maintained by the SDK for the contact list.
+ * Names are compared according to the rules of the current locale.
+ * @see Contacts#sorted(ContactsOrder)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public enum ContactsOrder {
+
+	/**
+	 * Contacts are sorted by display name.
+	 */
+	NAME,
+	/**
+	 * Contacts are sorted by status, available contacts first, and then by display name.
+	 */
+	STATUS,
+	/**
+	 * Contacts are sorted by the number of online users, largest first, and then by display name.
+	 */
+	USERS_COUNT
+
+}
@@ -0,0 +1,195 @@
+package com.zello.sdk;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Sort orders of a snapshot, kept as permutations of its rows.
+ * <p>
+ * Display names are converted to collation keys once per row, so sorting only compares bytes. When the previous ordering
+ * is available, the keys of rows whose display name didn't change are reused. If the rows of the snapshot are in the same
+ * places as before and only a few of them changed, the changed rows are removed from the previous permutations
+ * and inserted back with a binary search instead of sorting the whole list again.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsOrdering {
+
+	//region Private Properties
+
+	private static final ContactsOrder[] _orderValues = ContactsOrder.values();
+	private static final byte[] _statusRanks = statusRanks(); // Indexed by ContactStatus ordinal; lower ranks go first
+	private static final int _incrementalRatio = 8; // Patch the permutations when at most 1/8 of the rows changed
+
+	private final ContactsSnapshot _snapshot;
+	private final Locale _locale;
+	private final CollationKey[] _keys;
+	private final int[][] _orders; // Indexed by ContactsOrder ordinal
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsOrdering(ContactsSnapshot snapshot, ContactsOrdering previous) {
+		_snapshot = snapshot;
+		_locale = Locale.getDefault();
+		if (previous != null && !_locale.equals(previous._locale)) {
+			previous = null;
+		}
+		int count = snapshot.getCount();
+		ContactsSnapshot previousSnapshot = previous != null ? previous._snapshot : null;
+		boolean sameRows = previousSnapshot != null && previousSnapshot.getCount() == count;
+		for (int i = 0; sameRows && i < count; ++i) {
+			sameRows = snapshot.getType(i) == previousSnapshot.getType(i) && equals(snapshot.getName(i), previousSnapshot.getName(i));
+		}
+
+		Collator collator = Collator.getInstance(_locale);
+		collator.setStrength(Collator.SECONDARY);
+		_keys = new CollationKey[count];
+		boolean[] changed = new boolean[count];
+		int changedCount = 0;
+		for (int i = 0; i < count; ++i) {
+			int previousIndex = -1;
+			if (sameRows) {
+				previousIndex = i;
+			} else if (previousSnapshot != null) {
+				previousIndex = previousSnapshot.indexOf(snapshot.getName(i), snapshot.getType(i));
+			}
+			String sortName = sortName(snapshot, i);
+			if (previousIndex >= 0 && sortName.equals(sortName(previousSnapshot, previousIndex))) {
+				_keys[i] = previous._keys[previousIndex];
+			} else {
+				_keys[i] = collator.getCollationKey(sortName);
+				changed[i] = true;
+			}
+			if (sameRows && !changed[i] && (snapshot.getStatus(i) != previousSnapshot.getStatus(i) ||
+					snapshot.getUsersCount(i) != previousSnapshot.getUsersCount(i))) {
+				changed[i] = true;
+			}
+			if (changed[i]) {
+				++changedCount;
+			}
+		}
+
+		_orders = new int[_orderValues.length][];
+		boolean incremental = sameRows && changedCount * _incrementalRatio <= count;
+		for (ContactsOrder order : _orderValues) {
+			_orders[order.ordinal()] = incremental ? patch(order, previous._orders[order.ordinal()], changed, changedCount) : sort(order);
+		}
+	}
+
+	boolean isBuiltFor(ContactsSnapshot snapshot) {
+		return _snapshot == snapshot && _locale.equals(Locale.getDefault());
+	}
+
+	ContactsSelection select(ContactsOrder order) {
+		return new ContactsSelection(_snapshot, _orders[order.ordinal()]);
+	}
+
+	// Returns the rows in the specified order; the array must not be modified
+	int[] getRows(ContactsOrder order) {
+		return _orders[order.ordinal()];
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private int[] sort(final ContactsOrder order) {
+		Integer[] rows = new Integer[_keys.length];
+		for (int i = 0; i < rows.length; ++i) {
+			rows[i] = i;
+		}
+		Arrays.sort(rows, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return ContactsOrdering.this.compare(order, a, b);
+			}
+		});
+		int[] result = new int[rows.length];
+		for (int i = 0; i < rows.length; ++i) {
+			result[i] = rows[i];
+		}
+		return result;
+	}
+
+	// Unchanged rows keep their relative order, so only the changed ones have to be placed again
+	private int[] patch(ContactsOrder order, int[] previous, boolean[] changed, int changedCount) {
+		int[] rows = new int[previous.length];
+		int size = 0;
+		for (int row : previous) {
+			if (!changed[row]) {
+				rows[size++] = row;
+			}
+		}
+		for (int row = 0; changedCount > 0 && row < changed.length; ++row) {
+			if (!changed[row]) {
+				continue;
+			}
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare(order, rows[middle], row) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			System.arraycopy(rows, low, rows, low + 1, size - low);
+			rows[low] = row;
+			++size;
+			--changedCount;
+		}
+		return rows;
+	}
+
+	// Ties are broken by the position in the snapshot, so every row has exactly one place in each order
+	private int compare(ContactsOrder order, int a, int b) {
+		int result = 0;
+		switch (order) {
+			case STATUS: {
+				result = _statusRanks[_snapshot.getStatus(a).ordinal()] - _statusRanks[_snapshot.getStatus(b).ordinal()];
+				break;
+			}
+			case USERS_COUNT: {
+				int countA = _snapshot.getUsersCount(a);
+				int countB = _snapshot.getUsersCount(b);
+				result = countA > countB ? -1 : (countA < countB ? 1 : 0);
+				break;
+			}
+		}
+		if (result == 0) {
+			result = _keys[a].compareTo(_keys[b]);
+		}
+		return result != 0 ? result : (a < b ? -1 : (a > b ? 1 : 0));
+	}
+
+	private static String sortName(ContactsSnapshot snapshot, int index) {
+		String name = snapshot.getDisplayName(index);
+		if (name == null || name.isEmpty()) {
+			name = snapshot.getName(index);
+		}
+		return Util.emptyIfNull(name);
+	}
+
+	private static boolean equals(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	private static byte[] statusRanks() {
+		byte[] ranks = new byte[ContactStatus.values().length];
+		ranks[ContactStatus.AVAILABLE.ordinal()] = 0;
+		ranks[ContactStatus.BUSY.ordinal()] = 1;
+		ranks[ContactStatus.STANDBY.ordinal()] = 2;
+		ranks[ContactStatus.CONNECTING.ordinal()] = 3;
+		ranks[ContactStatus.OFFLINE.ordinal()] = 4;
+		return ranks;
+	}
+
+	//endregion
+
+}
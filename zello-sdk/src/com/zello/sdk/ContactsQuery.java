@@ -0,0 +1,287 @@
+package com.zello.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * <p>
+ *     The <code>ContactsQuery</code> class describes a filtered and sorted subset of the {@link Contacts} list.
+ * </p>
+ * <p>
+ *     Filters, projected columns and the sort order are passed to the ZelloWork app with the contacts query,
+ *     so a narrower query transfers less data between the apps and uses less memory.
+ *     To use, configure an instance with the setter methods and pass it to {@link Zello#getContacts(ContactsQuery)}.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ContactsQuery {
+
+	/**
+	 * The <code>Column</code> enum lists the contact properties that can be projected or used for sorting.
+	 */
+	public enum Column {
+
+		/**
+		 * See {@link Contact#getName()}. Always included in the projection.
+		 */
+		NAME("name"),
+		/**
+		 * See {@link Contact#getFullName()}.
+		 */
+		FULL_NAME("fullname"),
+		/**
+		 * See {@link Contact#getDisplayName()}.
+		 */
+		DISPLAY_NAME("displayname"),
+		/**
+		 * See {@link Contact#getStatusMessage()}.
+		 */
+		STATUS_MESSAGE("statusmessage"),
+		/**
+		 * See {@link Contact#getType()}. Always included in the projection.
+		 */
+		TYPE("type"),
+		/**
+		 * See {@link Contact#getStatus()}.
+		 */
+		STATUS("status"),
+		/**
+		 * See {@link Contact#getUsersCount()}.
+		 */
+		USERS_COUNT("userscount"),
+		/**
+		 * See {@link Contact#getUsersTotal()}.
+		 */
+		USERS_TOTAL("userstotal"),
+		/**
+		 * See {@link Contact#getTitle()}.
+		 */
+		TITLE("title"),
+		/**
+		 * See {@link Contact#getMuted()}.
+		 */
+		MUTED("muted"),
+		/**
+		 * See {@link Contact#getNoDisconnect()}.
+		 * Older versions of the ZelloWork app don't have this column, so it's only projected once the SDK has seen it in the full contact list;
+		 * until then <code>Contact.getNoDisconnect()</code> returns the default value.
+		 */
+		NO_DISCONNECT("nodisconnect");
+
+		final String _name;
+
+		Column(String name) {
+			_name = name;
+		}
+
+	}
+
+	//region Private Properties
+
+	private EnumSet<ContactType> _types;
+	private EnumSet<ContactStatus> _statuses;
+	private Boolean _muted;
+	private EnumSet<Column> _columns;
+	private final ArrayList<String> _sortOrder = new ArrayList<>();
+
+	//endregion
+
+	//region Public Methods
+
+	public ContactsQuery() {
+
+	}
+
+	/**
+	 * Limits the query to contacts of the specified types.
+	 * @param types Nullable; the types to include. Pass <code>null</code> to include all types.
+	 * @return This query.
+	 */
+	public ContactsQuery setTypes(ContactType... types) {
+		_types = types == null || types.length == 0 ? null : EnumSet.copyOf(Arrays.asList(types));
+		return this;
+	}
+
+	/**
+	 * Limits the query to contacts with the specified statuses.
+	 * @param statuses Nullable; the statuses to include. Pass <code>null</code> to include all statuses.
+	 * @return This query.
+	 */
+	public ContactsQuery setStatuses(ContactStatus... statuses) {
+		_statuses = statuses == null || statuses.length == 0 ? null : EnumSet.copyOf(Arrays.asList(statuses));
+		return this;
+	}
+
+	/**
+	 * Limits the query to muted or unmuted contacts.
+	 * @param muted Nullable; <code>true</code> to include only muted contacts, <code>false</code> to include only unmuted contacts, <code>null</code> to include both.
+	 * @return This query.
+	 */
+	public ContactsQuery setMuted(Boolean muted) {
+		_muted = muted;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 *     Limits the columns that are transferred from the ZelloWork app.
+	 * </p>
+	 * <p>
+	 *     The properties of the returned <code>Contact</code> objects that correspond to the columns that are not projected keep their default values.
+	 *     {@link Column#NAME} and {@link Column#TYPE} are always projected.
+	 * </p>
+	 * @param columns Nullable; the columns to include. Pass <code>null</code> to include all columns.
+	 * @return This query.
+	 */
+	public ContactsQuery setColumns(Column... columns) {
+		if (columns == null || columns.length == 0) {
+			_columns = null;
+		} else {
+			_columns = EnumSet.copyOf(Arrays.asList(columns));
+			_columns.add(Column.NAME);
+			_columns.add(Column.TYPE);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a sort key. Keys are applied in the order they were added.
+	 * @param column The column to sort by.
+	 * @param descending Whether to sort in the descending order.
+	 * @return This query.
+	 */
+	public ContactsQuery addSortOrder(Column column, boolean descending) {
+		if (column != null) {
+			_sortOrder.add(column._name + (descending ? " DESC" : " ASC"));
+		}
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ContactsQuery)) {
+			return false;
+		}
+		ContactsQuery query = (ContactsQuery) o;
+		return equals(_types, query._types) && equals(_statuses, query._statuses) && equals(_muted, query._muted) &&
+				equals(_columns, query._columns) && _sortOrder.equals(query._sortOrder);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(new Object[]{_types, _statuses, _muted, _columns, _sortOrder});
+	}
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsQuery copy() {
+		ContactsQuery query = new ContactsQuery();
+		query._types = _types != null ? EnumSet.copyOf(_types) : null;
+		query._statuses = _statuses != null ? EnumSet.copyOf(_statuses) : null;
+		query._muted = _muted;
+		query._columns = _columns != null ? EnumSet.copyOf(_columns) : null;
+		query._sortOrder.addAll(_sortOrder);
+		return query;
+	}
+
+	String[] getProjection() {
+		EnumSet<Column> columns = _columns;
+		if (columns == null) {
+			return null;
+		}
+		boolean noDisconnect = ContactsCursor.isNoDisconnectAvailable();
+		String[] projection = new String[columns.size()];
+		int i = 0;
+		for (Column column : columns) {
+			if (column != Column.NO_DISCONNECT || noDisconnect) {
+				projection[i++] = column._name;
+			}
+		}
+		return i == projection.length ? projection : Arrays.copyOf(projection, i);
+	}
+
+	String getSelection() {
+		StringBuilder selection = new StringBuilder();
+		// Values the SDK doesn't know are decoded as users and offline contacts, so these are selected by excluding the other values
+		EnumSet<ContactType> types = _types;
+		if (types != null) {
+			boolean included = !types.contains(ContactType.USER);
+			ArrayList<Integer> values = new ArrayList<>();
+			for (ContactType type : included ? types : EnumSet.complementOf(types)) {
+				values.add(Sdk.contactTypeToInt(type));
+			}
+			appendIn(selection, Column.TYPE, values, included);
+		}
+		EnumSet<ContactStatus> statuses = _statuses;
+		if (statuses != null) {
+			boolean included = !statuses.contains(ContactStatus.OFFLINE);
+			ArrayList<Integer> values = new ArrayList<>();
+			for (ContactStatus status : included ? statuses : EnumSet.complementOf(statuses)) {
+				for (int value : Sdk.contactStatusToInts(status)) {
+					values.add(value);
+				}
+			}
+			appendIn(selection, Column.STATUS, values, included);
+		}
+		if (_muted != null) {
+			if (selection.length() > 0) {
+				selection.append(" AND ");
+			}
+			selection.append(Column.MUTED._name).append(_muted ? " != 0" : " = 0");
+		}
+		return selection.length() > 0 ? selection.toString() : null;
+	}
+
+	String getSortOrder() {
+		if (_sortOrder.isEmpty()) {
+			return null;
+		}
+		StringBuilder sortOrder = new StringBuilder();
+		for (String key : _sortOrder) {
+			if (sortOrder.length() > 0) {
+				sortOrder.append(", ");
+			}
+			sortOrder.append(key);
+		}
+		return sortOrder.toString();
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	// Excluded values also let null values through, since those are read as 0
+	private static void appendIn(StringBuilder selection, Column column, ArrayList<Integer> values, boolean included) {
+		if (!included && values.isEmpty()) {
+			return;
+		}
+		if (selection.length() > 0) {
+			selection.append(" AND ");
+		}
+		if (included) {
+			selection.append(column._name).append(" IN (");
+		} else {
+			selection.append("(").append(column._name).append(" IS NULL OR ").append(column._name).append(" NOT IN (");
+		}
+		for (int i = 0; i < values.size(); ++i) {
+			if (i > 0) {
+				selection.append(",");
+			}
+			selection.append(values.get(i));
+		}
+		selection.append(included ? ")" : "))");
+	}
+
+	private static boolean equals(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,227 @@
+package com.zello.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted word-prefix index over contact display names, full names and names.
+ * <p>
+ * Every word of every indexed field is stored once in a sorted array together with the row it belongs to and a rank
+ * that reflects how good a match on that word is. A query is answered with a binary search for the first word that
+ * starts with the query followed by a scan of the adjacent words, so the cost depends on the number of matches rather
+ * than on the size of the list.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ContactsSearchIndex {
+
+	//region Private Properties
+
+	// Ranks, best first: leading word of display name, other display name word, leading word of full name, etc.
+	private static final int _fieldDisplayName = 0;
+	private static final int _fieldFullName = 1;
+	private static final int _fieldName = 2;
+	private static final int _ranks = 6;
+
+	private final ContactsSnapshot _snapshot;
+	private final String[] _words;
+	private final int[] _wordRows;
+	private final byte[] _wordRanks;
+	private final String[] _text; // Lower case fields of each row separated with '\n'; used to verify multi-word queries
+	private final int[] _best; // Per row scratch: best rank + 1 for the current query, 0 if not matched
+	private final int[] _seen; // Per row scratch: query stamp that last touched the row
+	private int _stamp;
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsSearchIndex(ContactsSnapshot snapshot) {
+		_snapshot = snapshot;
+		int count = snapshot.getCount();
+		_text = new String[count];
+		_best = new int[count];
+		_seen = new int[count];
+		final ArrayList<String> words = new ArrayList<>(count * 3);
+		ArrayList<Integer> meta = new ArrayList<>(count * 3);
+		for (int i = 0; i < count; ++i) {
+			String displayName = lower(snapshot.getDisplayName(i));
+			String fullName = lower(snapshot.getFullName(i));
+			String name = lower(snapshot.getName(i));
+			_text[i] = displayName + "\n" + fullName + "\n" + name;
+			addWords(words, meta, displayName, i, _fieldDisplayName);
+			addWords(words, meta, fullName, i, _fieldFullName);
+			addWords(words, meta, name, i, _fieldName);
+		}
+		Integer[] order = new Integer[words.size()];
+		for (int i = 0; i < order.length; ++i) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return words.get(a).compareTo(words.get(b));
+			}
+		});
+		_words = new String[order.length];
+		_wordRows = new int[order.length];
+		_wordRanks = new byte[order.length];
+		for (int i = 0; i < order.length; ++i) {
+			int source = order[i];
+			int packed = meta.get(source);
+			_words[i] = words.get(source);
+			_wordRows[i] = packed >>> 3;
+			_wordRanks[i] = (byte) (packed & 7);
+		}
+	}
+
+	boolean isBuiltFor(ContactsSnapshot snapshot) {
+		return _snapshot == snapshot;
+	}
+
+	// Not thread safe: uses per-index scratch buffers
+	List<Contact> search(CharSequence query, int limit) {
+		ArrayList<Contact> result = new ArrayList<>();
+		String[] terms = split(lower(query == null ? null : query.toString()));
+		if (terms.length == 0 || limit <= 0) {
+			return result;
+		}
+		// Use the longest term to hit the index; it has the fewest matching words
+		String key = terms[0];
+		for (String term : terms) {
+			if (term.length() > key.length()) {
+				key = term;
+			}
+		}
+		int stamp = ++_stamp;
+		ArrayList<Integer> matches = new ArrayList<>();
+		for (int i = lowerBound(key); i < _words.length && _words[i].startsWith(key); ++i) {
+			int row = _wordRows[i];
+			int rank = _wordRanks[i] + 1;
+			if (_seen[row] != stamp) {
+				_seen[row] = stamp;
+				if (terms.length > 1 && !matchesAll(_text[row], terms)) {
+					_best[row] = 0;
+					continue;
+				}
+				_best[row] = rank;
+				matches.add(row);
+			} else if (_best[row] != 0 && rank < _best[row]) {
+				_best[row] = rank;
+			}
+		}
+		// Bucket by rank; rows keep the order of the snapshot within a rank
+		int[] counts = new int[_ranks + 1];
+		for (int row : matches) {
+			counts[_best[row]]++;
+		}
+		int[][] buckets = new int[_ranks + 1][];
+		for (int r = 1; r <= _ranks; ++r) {
+			buckets[r] = new int[counts[r]];
+			counts[r] = 0;
+		}
+		int[] sorted = matchesToArray(matches);
+		Arrays.sort(sorted);
+		for (int row : sorted) {
+			int rank = _best[row];
+			buckets[rank][counts[rank]++] = row;
+		}
+		for (int r = 1; r <= _ranks && result.size() < limit; ++r) {
+			for (int i = 0; i < buckets[r].length && result.size() < limit; ++i) {
+				result.add(_snapshot.getItem(buckets[r][i]));
+			}
+		}
+		return result;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private int lowerBound(String key) {
+		int lo = 0;
+		int hi = _words.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (_words[mid].compareTo(key) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static int[] matchesToArray(ArrayList<Integer> matches) {
+		int[] array = new int[matches.size()];
+		for (int i = 0; i < array.length; ++i) {
+			array[i] = matches.get(i);
+		}
+		return array;
+	}
+
+	private static boolean matchesAll(String text, String[] terms) {
+		for (String term : terms) {
+			if (!hasWordStartingWith(text, term)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasWordStartingWith(String text, String prefix) {
+		int from = 0;
+		while (true) {
+			int index = text.indexOf(prefix, from);
+			if (index < 0) {
+				return false;
+			}
+			if (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1))) {
+				return true;
+			}
+			from = index + 1;
+		}
+	}
+
+	private static void addWords(ArrayList<String> words, ArrayList<Integer> meta, String text, int row, int field) {
+		int length = text.length();
+		int start = -1;
+		boolean first = true;
+		for (int i = 0; i <= length; ++i) {
+			boolean letter = i < length && Character.isLetterOrDigit(text.charAt(i));
+			if (letter && start < 0) {
+				start = i;
+			} else if (!letter && start >= 0) {
+				words.add(text.substring(start, i));
+				meta.add((row << 3) | (field * 2 + (first ? 0 : 1)));
+				first = false;
+				start = -1;
+			}
+		}
+	}
+
+	private static String[] split(String text) {
+		ArrayList<String> terms = new ArrayList<>();
+		int length = text.length();
+		int start = -1;
+		for (int i = 0; i <= length; ++i) {
+			boolean letter = i < length && Character.isLetterOrDigit(text.charAt(i));
+			if (letter && start < 0) {
+				start = i;
+			} else if (!letter && start >= 0) {
+				terms.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return terms.toArray(new String[terms.size()]);
+	}
+
+	private static String lower(String s) {
+		return s == null ? "" : Util.toLowerCaseLexicographically(s);
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,102 @@
+package com.zello.sdk;
+
+/**
+ * <p>
+ *     The <code>ContactsSelection</code> class is an ordered selection of the rows of a {@link ContactsSnapshot}.
+ * </p>
+ * <p>
+ *     A selection refers to the rows of the snapshot by index and doesn't copy any contact data, so it's cheap to obtain
+ *     and, like the snapshot, never changes and can be read from any thread.
+ * </p>
+ * @see Contacts#sorted(ContactsOrder)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ContactsSelection {
+
+	//region Private Properties
+
+	private final ContactsSnapshot _snapshot;
+	private final int[] _rows; // Snapshot indexes in selection order; shared, never modified
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsSelection(ContactsSnapshot snapshot, int[] rows) {
+		_snapshot = snapshot;
+		_rows = rows;
+	}
+
+	int[] getRows() {
+		return _rows;
+	}
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the snapshot that the selection refers to.
+	 * @return The snapshot of the contact list.
+	 */
+	public ContactsSnapshot getSnapshot() {
+		return _snapshot;
+	}
+
+	/**
+	 * Returns the number of contacts in the selection.
+	 * @return The number of contacts.
+	 */
+	public int getCount() {
+		return _rows.length;
+	}
+
+	/**
+	 * Returns the index in the snapshot of the contact at the specified position.
+	 * @param position Position of the contact in the selection.
+	 * @return Index of the contact in {@link #getSnapshot()} or <code>-1</code> if the position is not valid.
+	 */
+	public int getIndex(int position) {
+		return position >= 0 && position < _rows.length ? _rows[position] : -1;
+	}
+
+	/**
+	 * Creates a <code>Contact</code> with the data at the specified position.
+	 * @param position Position indicating which <code>Contact</code> to retrieve.
+	 * @return Nullable; <code>Contact</code> at the specified position.
+	 */
+	public Contact getItem(int position) {
+		return getItem(position, null);
+	}
+
+	/**
+	 * Reads the <code>Contact</code> at the specified position into an existing instance.
+	 * @param position Position indicating which <code>Contact</code> to retrieve.
+	 * @param reuse Nullable; the object to copy data to. A new object is allocated when <code>null</code>.
+	 * @return <code>reuse</code> (or a new <code>Contact</code>) populated with the data at the specified position, or <code>null</code> if the position is not valid.
+	 */
+	public Contact getItem(int position, Contact reuse) {
+		int index = getIndex(position);
+		return index >= 0 ? _snapshot.getItem(index, reuse) : null;
+	}
+
+	/**
+	 * Positions a <code>ContactView</code> at the contact at the specified position.
+	 * @param position Position indicating which contact to view.
+	 * @param reuse Nullable; the view to position. A new view is allocated when <code>null</code>.
+	 * @return <code>reuse</code> (or a new <code>ContactView</code>) positioned at the contact, or <code>null</code> if the position is not valid.
+	 * @see ContactView
+	 */
+	public ContactView getView(int position, ContactView reuse) {
+		int index = getIndex(position);
+		if (index < 0) {
+			return null;
+		}
+		ContactView view = reuse != null ? reuse : new ContactView();
+		view.bind(_snapshot, null, index);
+		return view;
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,615 @@
+package com.zello.sdk;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     The <code>ContactsSnapshot</code> class is an immutable copy of the contact list at a point in time.
+ * </p>
+ * <p>
+ *     The snapshot stores contact properties in primitive arrays and keeps a single copy of every distinct string,
+ *     so it uses much less memory than the equivalent list of {@link Contact} objects. It never changes after it has been
+ *     created and can be read from any number of threads without synchronization.
+ *     <code>Contact</code> objects are only created when requested with {@link #getItem(int)} or {@link #getItem(int, Contact)}.
+ * </p>
+ * <p>
+ *     To use, get the snapshot of the current contact list using the {@link Contacts#getSnapshot()} method.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ContactsSnapshot {
+
+	//region Private Properties
+
+	private static final AtomicLong _versions = new AtomicLong();
+	private static final int _fileMagic = 0x5A534331; // "ZSC1"
+	private static final Charset _utf8 = Charset.forName("UTF-8");
+	private static final ContactType[] _typeValues = ContactType.values();
+	private static final ContactStatus[] _statusValues = ContactStatus.values();
+
+	private final long _version;
+	private final int _count;
+	private final String[] _strings; // Distinct strings referenced by the string columns
+	private final int[] _names; // Indexes into _strings; -1 for null
+	private final int[] _fullNames;
+	private final int[] _displayNames;
+	private final int[] _statusMessages;
+	private final int[] _titles;
+	private final byte[] _types; // ContactType ordinals
+	private final byte[] _statuses; // ContactStatus ordinals
+	private final int[] _usersCounts;
+	private final int[] _usersTotals;
+	private final long[] _muted; // Bitset
+	private final long[] _noDisconnect; // Bitset
+	private volatile ContactsIndex _index; // Built on first lookup
+
+	//endregion
+
+	//region Package Private Methods
+
+	private ContactsSnapshot(Builder builder) {
+		_version = _versions.incrementAndGet();
+		_count = builder._count;
+		_strings = builder._strings.toArray(new String[builder._strings.size()]);
+		_names = trim(builder._names, _count);
+		_fullNames = trim(builder._fullNames, _count);
+		_displayNames = trim(builder._displayNames, _count);
+		_statusMessages = trim(builder._statusMessages, _count);
+		_titles = trim(builder._titles, _count);
+		_types = trim(builder._types, _count);
+		_statuses = trim(builder._statuses, _count);
+		_usersCounts = trim(builder._usersCounts, _count);
+		_usersTotals = trim(builder._usersTotals, _count);
+		_muted = trim(builder._muted, (_count + 63) >> 6);
+		_noDisconnect = trim(builder._noDisconnect, (_count + 63) >> 6);
+	}
+
+	private ContactsSnapshot(int count, String[] strings, int[][] stringColumns, byte[] types, byte[] statuses,
+							 int[] usersCounts, int[] usersTotals, long[] muted, long[] noDisconnect) {
+		_version = _versions.incrementAndGet();
+		_count = count;
+		_strings = strings;
+		_names = stringColumns[0];
+		_fullNames = stringColumns[1];
+		_displayNames = stringColumns[2];
+		_statusMessages = stringColumns[3];
+		_titles = stringColumns[4];
+		_types = types;
+		_statuses = statuses;
+		_usersCounts = usersCounts;
+		_usersTotals = usersTotals;
+		_muted = muted;
+		_noDisconnect = noDisconnect;
+	}
+
+	// Writes the snapshot in the format understood by readFrom
+	void writeTo(DataOutputStream out) throws IOException {
+		out.writeInt(_fileMagic);
+		out.writeInt(_count);
+		out.writeInt(_strings.length);
+		for (String string : _strings) {
+			byte[] bytes = string.getBytes(_utf8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		for (int[] column : new int[][]{_names, _fullNames, _displayNames, _statusMessages, _titles, _usersCounts, _usersTotals}) {
+			for (int value : column) {
+				out.writeInt(value);
+			}
+		}
+		out.write(_types);
+		out.write(_statuses);
+		for (long[] column : new long[][]{_muted, _noDisconnect}) {
+			for (long value : column) {
+				out.writeLong(value);
+			}
+		}
+	}
+
+	// Reads a snapshot written by writeTo; throws if the data is truncated or malformed
+	static ContactsSnapshot readFrom(ByteBuffer in) throws IOException {
+		try {
+			if (in.getInt() != _fileMagic) {
+				throw new IOException("Unknown format");
+			}
+			int count = in.getInt();
+			int stringCount = in.getInt();
+			// Every size is checked against the remaining data before anything is allocated for it
+			if (count < 0 || stringCount < 0 || stringCount > in.remaining() / 4 || getColumnsSize(count) > in.remaining()) {
+				throw new IOException("Invalid header");
+			}
+			String[] strings = new String[stringCount];
+			for (int i = 0; i < stringCount; ++i) {
+				int length = in.getInt();
+				if (length < 0 || length > in.remaining()) {
+					throw new IOException("Invalid string length");
+				}
+				byte[] bytes = new byte[length];
+				in.get(bytes);
+				strings[i] = new String(bytes, _utf8);
+			}
+			if (getColumnsSize(count) > in.remaining()) {
+				throw new IOException("Truncated data");
+			}
+			int[][] stringColumns = new int[5][];
+			for (int c = 0; c < stringColumns.length; ++c) {
+				int[] column = readInts(in, count);
+				for (int value : column) {
+					if (value < -1 || value >= stringCount) {
+						throw new IOException("Invalid string index");
+					}
+				}
+				stringColumns[c] = column;
+			}
+			int[] usersCounts = readInts(in, count);
+			int[] usersTotals = readInts(in, count);
+			byte[] types = new byte[count];
+			in.get(types);
+			byte[] statuses = new byte[count];
+			in.get(statuses);
+			for (int i = 0; i < count; ++i) {
+				if (types[i] < 0 || types[i] >= _typeValues.length || statuses[i] < 0 || statuses[i] >= _statusValues.length) {
+					throw new IOException("Invalid contact type or status");
+				}
+			}
+			long[] muted = readLongs(in, (count + 63) >> 6);
+			long[] noDisconnect = readLongs(in, (count + 63) >> 6);
+			return new ContactsSnapshot(count, strings, stringColumns, types, statuses, usersCounts, usersTotals, muted, noDisconnect);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated data: " + e.toString());
+		}
+	}
+
+	int indexOf(String name, ContactType type) {
+		ContactsIndex index = _index;
+		if (index == null) {
+			// Racing threads may build the index twice; both results are identical
+			index = new ContactsIndex(this);
+			_index = index;
+		}
+		return index.indexOf(name, type);
+	}
+
+	boolean rowEquals(int index, ContactsSnapshot snapshot, int snapshotIndex) {
+		return _types[index] == snapshot._types[snapshotIndex] &&
+				_statuses[index] == snapshot._statuses[snapshotIndex] &&
+				_usersCounts[index] == snapshot._usersCounts[snapshotIndex] &&
+				_usersTotals[index] == snapshot._usersTotals[snapshotIndex] &&
+				getMuted(index) == snapshot.getMuted(snapshotIndex) &&
+				getNoDisconnect(index) == snapshot.getNoDisconnect(snapshotIndex) &&
+				stringEquals(getName(index), snapshot.getName(snapshotIndex)) &&
+				stringEquals(getFullName(index), snapshot.getFullName(snapshotIndex)) &&
+				stringEquals(getDisplayName(index), snapshot.getDisplayName(snapshotIndex)) &&
+				stringEquals(getStatusMessage(index), snapshot.getStatusMessage(snapshotIndex)) &&
+				stringEquals(getTitle(index), snapshot.getTitle(snapshotIndex));
+	}
+
+	// Returns a copy of the snapshot with the rows at the specified indexes replaced; the rows must keep their names and types.
+	// Changed strings are appended to the string table, which is compacted once the replaced ones take up too much of it
+	ContactsSnapshot patch(int[] indexes, Contact[] rows, StringPool pool) {
+		String[] strings = Arrays.copyOf(_strings, _strings.length + rows.length * 5);
+		int stringCount = _strings.length;
+		int[][] stringColumns = new int[][]{_names.clone(), _fullNames.clone(), _displayNames.clone(), _statusMessages.clone(), _titles.clone()};
+		byte[] types = _types.clone();
+		byte[] statuses = _statuses.clone();
+		int[] usersCounts = _usersCounts.clone();
+		int[] usersTotals = _usersTotals.clone();
+		long[] muted = _muted.clone();
+		long[] noDisconnect = _noDisconnect.clone();
+		for (int i = 0; i < indexes.length; ++i) {
+			int index = indexes[i];
+			Contact contact = rows[i];
+			String[] values = new String[]{contact._name, contact._fullName, contact._displayName, contact._statusMessage, contact._title};
+			for (int c = 0; c < values.length; ++c) {
+				String value = values[c];
+				int current = stringColumns[c][index];
+				if (value == null) {
+					stringColumns[c][index] = -1;
+				} else if (current < 0 || !value.equals(strings[current])) {
+					strings[stringCount] = pool != null && c > 0 ? pool.intern(value) : value;
+					stringColumns[c][index] = stringCount++;
+				}
+			}
+			types[index] = (byte) contact._type.ordinal();
+			statuses[index] = (byte) contact._status.ordinal();
+			usersCounts[index] = contact._usersCount;
+			usersTotals[index] = contact._usersTotal;
+			setBit(muted, index, contact._muted);
+			setBit(noDisconnect, index, contact._noDisconnect);
+		}
+		strings = compact(strings, stringCount, stringColumns);
+		ContactsSnapshot snapshot = new ContactsSnapshot(_count, strings, stringColumns, types, statuses, usersCounts, usersTotals, muted, noDisconnect);
+		// Patched rows keep their names and types, so the positions in the lookup index are still valid
+		ContactsIndex index = _index;
+		if (index != null) {
+			snapshot._index = index.retarget(snapshot);
+		}
+		return snapshot;
+	}
+
+	// Compares the properties reported to ContactWatchEvents listeners
+	boolean presenceEquals(int index, ContactsSnapshot snapshot, int snapshotIndex) {
+		return _statuses[index] == snapshot._statuses[snapshotIndex] &&
+				_usersCounts[index] == snapshot._usersCounts[snapshotIndex] &&
+				getMuted(index) == snapshot.getMuted(snapshotIndex) &&
+				stringEquals(getStatusMessage(index), snapshot.getStatusMessage(snapshotIndex));
+	}
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the version of the snapshot. Snapshots created later have greater versions.
+	 * @return The version of the snapshot.
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns the number of contacts in the snapshot.
+	 * @return The number of contacts.
+	 */
+	public int getCount() {
+		return _count;
+	}
+
+	/**
+	 * Creates a <code>Contact</code> with the data at the specified index.
+	 * @param index Index indicating which <code>Contact</code> to retrieve.
+	 * @return <code>Contact</code> at the specified index.
+	 */
+	public Contact getItem(int index) {
+		return getItem(index, null);
+	}
+
+	/**
+	 * Reads the <code>Contact</code> at the specified index into an existing instance.
+	 * @param index Index indicating which <code>Contact</code> to retrieve.
+	 * @param reuse Nullable; the object to copy data to. A new object is allocated when <code>null</code>.
+	 * @return <code>reuse</code> (or a new <code>Contact</code>) populated with the data at the specified index, or <code>null</code> if the index is not valid.
+	 * @throws UnsupportedOperationException if <code>reuse</code> belongs to a {@link StateSnapshot}.
+	 */
+	public Contact getItem(int index, Contact reuse) {
+		if (reuse != null) {
+			reuse.checkWritable();
+		}
+		if (index < 0 || index >= _count) {
+			return null;
+		}
+		Contact contact = reuse != null ? reuse : new Contact();
+		contact._name = getName(index);
+		contact._fullName = getFullName(index);
+		contact._displayName = getDisplayName(index);
+		contact._type = getType(index);
+		contact._status = getStatus(index);
+		contact._statusMessage = getStatusMessage(index);
+		contact._usersCount = _usersCounts[index];
+		contact._usersTotal = _usersTotals[index];
+		contact._title = getTitle(index);
+		contact._muted = getMuted(index);
+		contact._noDisconnect = getNoDisconnect(index);
+		return contact;
+	}
+
+	/**
+	 * Returns the name of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getName()}.
+	 */
+	public String getName(int index) {
+		return string(_names[index]);
+	}
+
+	/**
+	 * Returns the full name of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getFullName()}.
+	 */
+	public String getFullName(int index) {
+		return string(_fullNames[index]);
+	}
+
+	/**
+	 * Returns the display name of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getDisplayName()}.
+	 */
+	public String getDisplayName(int index) {
+		return string(_displayNames[index]);
+	}
+
+	/**
+	 * Returns the type of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getType()}.
+	 */
+	public ContactType getType(int index) {
+		return _typeValues[_types[index]];
+	}
+
+	/**
+	 * Returns the status of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getStatus()}.
+	 */
+	public ContactStatus getStatus(int index) {
+		return _statusValues[_statuses[index]];
+	}
+
+	/**
+	 * Returns the status message of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getStatusMessage()}.
+	 */
+	public String getStatusMessage(int index) {
+		return string(_statusMessages[index]);
+	}
+
+	/**
+	 * Returns the number of online users of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getUsersCount()}.
+	 */
+	public int getUsersCount(int index) {
+		return _usersCounts[index];
+	}
+
+	/**
+	 * Returns the number of total users of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getUsersTotal()}.
+	 */
+	public int getUsersTotal(int index) {
+		return _usersTotals[index];
+	}
+
+	/**
+	 * Returns the title of the contact at the specified index.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getTitle()}.
+	 */
+	public String getTitle(int index) {
+		return string(_titles[index]);
+	}
+
+	/**
+	 * Returns whether the contact at the specified index is muted.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getMuted()}.
+	 */
+	public boolean getMuted(int index) {
+		return (_muted[index >> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Returns whether the channel at the specified index has the no disconnect setting enabled.
+	 * @param index Index of the contact.
+	 * @return See {@link Contact#getNoDisconnect()}.
+	 */
+	public boolean getNoDisconnect(int index) {
+		return (_noDisconnect[index >> 6] & (1L << index)) != 0;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private String string(int index) {
+		return index >= 0 ? _strings[index] : null;
+	}
+
+	private static boolean stringEquals(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	private static void setBit(long[] bits, int index, boolean value) {
+		if (value) {
+			bits[index >> 6] |= 1L << index;
+		} else {
+			bits[index >> 6] &= ~(1L << index);
+		}
+	}
+
+	// Returns the number of bytes that the columns of a snapshot with the specified number of contacts take in the file
+	private static long getColumnsSize(int count) {
+		long bitmaps = ((long) count + 63) >> 6;
+		return 7L * 4 * count + 2L * count + 2 * 8 * bitmaps;
+	}
+
+	// Drops the strings that are no longer referenced once they make up more than a quarter of the table; remaps the columns in place
+	private static String[] compact(String[] strings, int stringCount, int[][] stringColumns) {
+		int[] remap = new int[stringCount];
+		int live = 0;
+		for (int[] column : stringColumns) {
+			for (int value : column) {
+				if (value >= 0 && remap[value] == 0) {
+					remap[value] = 1;
+					++live;
+				}
+			}
+		}
+		if (stringCount - live <= Math.max(64, live / 4)) {
+			return Arrays.copyOf(strings, stringCount);
+		}
+		String[] compacted = new String[live];
+		int next = 0;
+		for (int i = 0; i < stringCount; ++i) {
+			if (remap[i] != 0) {
+				compacted[next] = strings[i];
+				remap[i] = next++;
+			}
+		}
+		for (int[] column : stringColumns) {
+			for (int i = 0; i < column.length; ++i) {
+				if (column[i] >= 0) {
+					column[i] = remap[column[i]];
+				}
+			}
+		}
+		return compacted;
+	}
+
+	private static int[] readInts(ByteBuffer in, int count) {
+		int[] values = new int[count];
+		in.asIntBuffer().get(values);
+		in.position(in.position() + count * 4);
+		return values;
+	}
+
+	private static long[] readLongs(ByteBuffer in, int count) {
+		long[] values = new long[count];
+		in.asLongBuffer().get(values);
+		in.position(in.position() + count * 8);
+		return values;
+	}
+
+	private static int[] trim(int[] array, int length) {
+		return array.length == length ? array : Arrays.copyOf(array, length);
+	}
+
+	private static byte[] trim(byte[] array, int length) {
+		return array.length == length ? array : Arrays.copyOf(array, length);
+	}
+
+	private static long[] trim(long[] array, int length) {
+		return array.length == length ? array : Arrays.copyOf(array, length);
+	}
+
+	//endregion
+
+	/**
+	 * Builds a snapshot in a single pass over the rows. Not thread safe.
+	 * Text that tends to repeat across contacts and snapshots goes through the pool, if one is provided.
+	 */
+	static class Builder {
+
+		private final StringPool _pool;
+		private long _duplicates; // Strings that were replaced with an existing instance
+		private long _bytesSaved; // Estimated heap size of the replaced strings
+		private int _count;
+		private final ArrayList<String> _strings = new ArrayList<>();
+		private final HashMap<String, Integer> _stringIndexes = new HashMap<>();
+		private int[] _names;
+		private int[] _fullNames;
+		private int[] _displayNames;
+		private int[] _statusMessages;
+		private int[] _titles;
+		private byte[] _types;
+		private byte[] _statuses;
+		private int[] _usersCounts;
+		private int[] _usersTotals;
+		private long[] _muted;
+		private long[] _noDisconnect;
+
+		Builder(int capacity, StringPool pool) {
+			_pool = pool;
+			if (pool != null) {
+				pool.nextGeneration();
+			}
+			allocate(Math.max(capacity, 0));
+		}
+
+		void add(Contact contact) {
+			if (_count == _types.length) {
+				grow();
+			}
+			int index = _count++;
+			_names[index] = intern(contact._name, false);
+			_fullNames[index] = intern(contact._fullName, true);
+			_displayNames[index] = intern(contact._displayName, true);
+			_statusMessages[index] = intern(contact._statusMessage, true);
+			_titles[index] = intern(contact._title, true);
+			_types[index] = (byte) contact._type.ordinal();
+			_statuses[index] = (byte) contact._status.ordinal();
+			_usersCounts[index] = contact._usersCount;
+			_usersTotals[index] = contact._usersTotal;
+			if (contact._muted) {
+				_muted[index >> 6] |= 1L << index;
+			}
+			if (contact._noDisconnect) {
+				_noDisconnect[index >> 6] |= 1L << index;
+			}
+		}
+
+		int getCount() {
+			return _count;
+		}
+
+		ContactsSnapshot build() {
+			Metrics metrics = Zello.getInstance().metrics;
+			metrics._contactsStringsDeduplicated.addAndGet(_duplicates);
+			metrics._contactsStringBytesSaved.addAndGet(_bytesSaved);
+			return new ContactsSnapshot(this);
+		}
+
+		// Names are unique, so only other columns are looked up in the pool.
+		// Repeats within the snapshot share an entry of the string table, so only the strings taken from earlier snapshots are counted as saved
+		private int intern(String s, boolean pooled) {
+			if (s == null) {
+				return -1;
+			}
+			Integer index = _stringIndexes.get(s);
+			if (index != null) {
+				return index;
+			}
+			if (pooled && _pool != null) {
+				String canonical = _pool.intern(s);
+				if (canonical != s) {
+					countDuplicate(s);
+					s = canonical;
+				}
+			}
+			index = _strings.size();
+			_strings.add(s);
+			_stringIndexes.put(s, index);
+			return index;
+		}
+
+		private void countDuplicate(String s) {
+			++_duplicates;
+			// Object header, fields and the character array of a String
+			_bytesSaved += 40 + 2 * s.length();
+		}
+
+		private void allocate(int capacity) {
+			_names = new int[capacity];
+			_fullNames = new int[capacity];
+			_displayNames = new int[capacity];
+			_statusMessages = new int[capacity];
+			_titles = new int[capacity];
+			_types = new byte[capacity];
+			_statuses = new byte[capacity];
+			_usersCounts = new int[capacity];
+			_usersTotals = new int[capacity];
+			_muted = new long[(capacity + 63) >> 6];
+			_noDisconnect = new long[(capacity + 63) >> 6];
+		}
+
+		private void grow() {
+			int capacity = Math.max(16, _types.length * 2);
+			_names = Arrays.copyOf(_names, capacity);
+			_fullNames = Arrays.copyOf(_fullNames, capacity);
+			_displayNames = Arrays.copyOf(_displayNames, capacity);
+			_statusMessages = Arrays.copyOf(_statusMessages, capacity);
+			_titles = Arrays.copyOf(_titles, capacity);
+			_types = Arrays.copyOf(_types, capacity);
+			_statuses = Arrays.copyOf(_statuses, capacity);
+			_usersCounts = Arrays.copyOf(_usersCounts, capacity);
+			_usersTotals = Arrays.copyOf(_usersTotals, capacity);
+			_muted = Arrays.copyOf(_muted, (capacity + 63) >> 6);
+			_noDisconnect = Arrays.copyOf(_noDisconnect, (capacity + 63) >> 6);
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.zello.sdk;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     The <code>ContactsStats</code> class contains aggregate counts over the contact list of the current user.
+ * </p>
+ * <p>
+ *     The SDK counts the contacts when the list is loaded and then only updates the counts of the contacts that change,
+ *     so retrieving them does not require iterating over the contacts.
+ *     To use, retrieve the current values using the <code>Zello.getContactsStats(ContactsStats)</code> method.
+ * </p>
+ * @see Zello#getContactsStats(ContactsStats)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ContactsStats {
+
+	private static final int _statuses = ContactStatus.values().length;
+
+	//region Package Private Variables
+
+	final int[] _counts = new int[ContactType.values().length * _statuses]; // Indexed by type * _statuses + status
+	int _total;
+	int _channelUsers; // Sum of users count over all channels
+	int _connectedChannelUsers; // Sum of users count over connected channels
+
+	//endregion
+
+	/**
+	 * <p>
+	 *     Resets the <code>ContactsStats</code> instance back to the default values.
+	 * </p>
+	 * <p>
+	 *     This method only resets the values for this copied instance of the <code>ContactsStats</code>.
+	 * </p>
+	 */
+	public void reset() {
+		Arrays.fill(_counts, 0);
+		_total = 0;
+		_channelUsers = 0;
+		_connectedChannelUsers = 0;
+	}
+
+	@Override
+	public ContactsStats clone() {
+		ContactsStats stats = new ContactsStats();
+		copyTo(stats);
+		return stats;
+	}
+
+	//region Public Getters
+
+	/**
+	 * Returns the number of contacts of the specified type that have the specified status.
+	 * @param type The type of the contacts.
+	 * @param status The status of the contacts.
+	 * @return The number of matching contacts.
+	 */
+	public int getCount(ContactType type, ContactStatus status) {
+		if (type == null || status == null) {
+			return 0;
+		}
+		return _counts[type.ordinal() * _statuses + status.ordinal()];
+	}
+
+	/**
+	 * Returns the number of contacts of the specified type.
+	 * @param type The type of the contacts.
+	 * @return The number of matching contacts.
+	 */
+	public int getCount(ContactType type) {
+		if (type == null) {
+			return 0;
+		}
+		int count = 0;
+		for (int i = type.ordinal() * _statuses, end = i + _statuses; i < end; ++i) {
+			count += _counts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of contacts that have the specified status.
+	 * @param status The status of the contacts.
+	 * @return The number of matching contacts.
+	 */
+	public int getCount(ContactStatus status) {
+		if (status == null) {
+			return 0;
+		}
+		int count = 0;
+		for (int i = status.ordinal(); i < _counts.length; i += _statuses) {
+			count += _counts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the total number of contacts.
+	 * @return The number of contacts.
+	 */
+	public int getTotalCount() {
+		return _total;
+	}
+
+	/**
+	 * Returns the sum of {@link Contact#getUsersCount()} over all channels.
+	 * @return The number of online users in channels.
+	 */
+	public int getChannelUsersCount() {
+		return _channelUsers;
+	}
+
+	/**
+	 * Returns the sum of {@link Contact#getUsersCount()} over connected channels.
+	 * A channel is connected when its status is {@link ContactStatus#AVAILABLE}.
+	 * @return The number of online users in connected channels.
+	 */
+	public int getConnectedChannelUsersCount() {
+		return _connectedChannelUsers;
+	}
+
+	//endregion
+
+	//region Package Private Methods
+
+	void copyTo(ContactsStats stats) {
+		if (stats != null) {
+			System.arraycopy(_counts, 0, stats._counts, 0, _counts.length);
+			stats._total = _total;
+			stats._channelUsers = _channelUsers;
+			stats._connectedChannelUsers = _connectedChannelUsers;
+		}
+	}
+
+	// Counts all contacts of the snapshot from scratch
+	void rebuild(ContactsSnapshot snapshot) {
+		reset();
+		for (int i = 0, count = snapshot.getCount(); i < count; ++i) {
+			update(snapshot, i, 1);
+		}
+	}
+
+	// Adds (sign 1) or subtracts (sign -1) the contact at the specified index of the snapshot
+	void update(ContactsSnapshot snapshot, int index, int sign) {
+		ContactType type = snapshot.getType(index);
+		ContactStatus status = snapshot.getStatus(index);
+		_counts[type.ordinal() * _statuses + status.ordinal()] += sign;
+		_total += sign;
+		if (type == ContactType.CHANNEL) {
+			int usersCount = snapshot.getUsersCount(index);
+			_channelUsers += sign * usersCount;
+			if (status == ContactStatus.AVAILABLE) {
+				_connectedChannelUsers += sign * usersCount;
+			}
+		}
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,205 @@
+package com.zello.sdk;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     The <code>ContactsTabView</code> class is the part of the {@link Contacts} list that belongs to a single {@link Tab}.
+ * </p>
+ * <p>
+ *     The {@link Tab#USERS} view contains users and gateways, the {@link Tab#CHANNELS} view contains channels, groups and conversations.
+ *     The contacts provider of the ZelloWork app doesn't report recent activity, so the {@link Tab#RECENTS} view contains all contacts.
+ * </p>
+ * <p>
+ *     The view is maintained by the SDK: its selection refers to the rows of the current snapshot of the list, and the array of rows
+ *     is kept as is when the contacts of the tab don't move. Listeners are only notified when contacts of the tab change.
+ *     To use, get the view using the {@link Contacts#view(Tab)} method.
+ * </p>
+ * @see Contacts#view(Tab)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class ContactsTabView {
+
+	//region Private Properties
+
+	private final Contacts _contacts;
+	private final Tab _tab;
+	private final boolean[] _types; // Indexed by ContactType ordinal
+	private volatile ContactsSelection _selection; // Rows of the last selected snapshot
+	private ContactsSelection _delivered; // Last selection compared for listeners
+	private final ListenerRegistry<ContactsTabViewEvents> _listeners = new ListenerRegistry<>(new ContactsTabViewEvents[0]); // Checked from any thread
+
+	//endregion
+
+	//region Package Private Methods
+
+	ContactsTabView(Contacts contacts, Tab tab) {
+		_contacts = contacts;
+		_tab = tab;
+		_types = new boolean[ContactType.values().length];
+		switch (tab) {
+			case USERS: {
+				_types[ContactType.USER.ordinal()] = true;
+				_types[ContactType.GATEWAY.ordinal()] = true;
+				break;
+			}
+			case CHANNELS: {
+				_types[ContactType.CHANNEL.ordinal()] = true;
+				_types[ContactType.GROUP.ordinal()] = true;
+				_types[ContactType.CONVERSATION.ordinal()] = true;
+				break;
+			}
+			default: {
+				Arrays.fill(_types, true);
+				break;
+			}
+		}
+	}
+
+	boolean hasListeners() {
+		return !_listeners.isEmpty();
+	}
+
+	// Sets the selection that later changes are compared to
+	void start(ContactsSnapshot snapshot) {
+		if (_delivered == null && snapshot != null) {
+			_delivered = select(snapshot);
+		}
+	}
+
+	// Notifies listeners if the contacts of the tab differ from the ones in the last compared snapshot
+	void update(ContactsSnapshot snapshot) {
+		if (_listeners.isEmpty()) {
+			_delivered = null;
+			return;
+		}
+		ContactsSelection previous = _delivered;
+		ContactsSelection selection = select(snapshot);
+		_delivered = selection;
+		if (previous == null || !changed(previous, selection)) {
+			return;
+		}
+		for (ContactsTabViewEvents listener : _listeners.get()) {
+			listener.onContactsViewChanged(this);
+		}
+	}
+
+	void clear() {
+		_listeners.clear();
+		_delivered = null;
+		_selection = null;
+	}
+
+	ContactsSelection select(ContactsSnapshot snapshot) {
+		ContactsSelection selection = _selection;
+		if (selection != null && selection.getSnapshot() == snapshot) {
+			return selection;
+		}
+		selection = new ContactsSelection(snapshot, rows(snapshot, selection));
+		_selection = selection;
+		return selection;
+	}
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the tab of the view.
+	 * @return The tab.
+	 */
+	public Tab getTab() {
+		return _tab;
+	}
+
+	/**
+	 * <p>
+	 *     Returns the contacts of the tab in the current version of the list.
+	 * </p>
+	 * <p>
+	 *     NB: The first call after a change may take nontrivial time to execute, so do not call it from the UI thread
+	 *     unless the list was loaded with {@link Contacts#loadAsync(ContactsCallback)}.
+	 * </p>
+	 * @return Nullable; the contacts of the tab, or <code>null</code> if the list could not be read.
+	 */
+	public ContactsSelection getSelection() {
+		ContactsSnapshot snapshot = _contacts.getSnapshot();
+		return snapshot != null ? select(snapshot) : null;
+	}
+
+	/**
+	 * Adds a listener to be notified when contacts of the tab change. Call this method from the UI thread.
+	 * @param listener The listener to add.
+	 * @see ContactsTabViewEvents
+	 */
+	public void addListener(ContactsTabViewEvents listener) {
+		if (_listeners.add(listener)) {
+			_contacts.startViewUpdates(this);
+		}
+	}
+
+	/**
+	 * Removes a listener added with {@link #addListener(ContactsTabViewEvents)}. Call this method from the UI thread.
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(ContactsTabViewEvents listener) {
+		if (_listeners.remove(listener) && _listeners.isEmpty()) {
+			_delivered = null;
+		}
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	// Collects the rows of the tab; returns the array of the previous selection if the rows didn't move
+	private int[] rows(ContactsSnapshot snapshot, ContactsSelection previous) {
+		int[] shared = previous != null ? previous.getRows() : null;
+		int count = snapshot.getCount();
+		int[] rows = null;
+		int size = 0;
+		for (int i = 0; i < count; ++i) {
+			if (!_types[snapshot.getType(i).ordinal()]) {
+				continue;
+			}
+			if (rows == null) {
+				if (shared != null && size < shared.length && shared[size] == i) {
+					++size;
+					continue;
+				}
+				// Rows moved; the remaining rows can't outnumber the remaining contacts
+				rows = new int[size + count - i];
+				if (size > 0) {
+					System.arraycopy(shared, 0, rows, 0, size);
+				}
+			}
+			rows[size++] = i;
+		}
+		if (rows == null) {
+			rows = shared != null ? shared : new int[0];
+		}
+		return size == rows.length ? rows : Arrays.copyOf(rows, size);
+	}
+
+	private static boolean changed(ContactsSelection previous, ContactsSelection selection) {
+		ContactsSnapshot previousSnapshot = previous.getSnapshot();
+		ContactsSnapshot snapshot = selection.getSnapshot();
+		if (previousSnapshot == snapshot) {
+			return false;
+		}
+		int[] previousRows = previous.getRows();
+		int[] rows = selection.getRows();
+		if (previousRows.length != rows.length) {
+			return true;
+		}
+		for (int i = 0; i < rows.length; ++i) {
+			if (!previousSnapshot.rowEquals(previousRows[i], snapshot, rows[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//endregion
+
+}
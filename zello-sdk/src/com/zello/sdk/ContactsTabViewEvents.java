@@ -0,0 +1,22 @@
+package com.zello.sdk;
+
+/**
+ * The <code>ContactsTabViewEvents</code> interface enables monitoring of changes to the contacts of a single {@link Tab}.
+ * @see ContactsTabView#addListener(ContactsTabViewEvents)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface ContactsTabViewEvents {
+
+	/**
+	 * <p>
+	 * Called when contacts shown in the tab are added, removed or modified.
+	 * </p>
+	 * <p>
+	 * This method is invoked on the UI thread. Changes to contacts that don't belong to the tab don't trigger it.
+	 * </p>
+	 *
+	 * @param view The view whose contacts changed. Use {@link ContactsTabView#getSelection()} to read the new contacts.
+	 */
+	void onContactsViewChanged(ContactsTabView view);
+
+}
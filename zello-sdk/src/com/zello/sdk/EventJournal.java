@@ -0,0 +1,245 @@
+package com.zello.sdk;
+
+import android.os.SystemClock;
+
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size record of the broadcasts received from the Zello app and the commands sent to it, kept for diagnostics.
+ * <p>
+ * Each entry holds the time it was recorded, its type and a single number describing it. Entries are stored in arrays
+ * that are allocated once, so recording doesn't allocate and doesn't take a lock; when the journal is full, the oldest entries are overwritten.
+ * Writers claim a slot by incrementing a shared counter and publish it by storing its sequence number last.
+ * A reader that sees the same sequence number before and after reading a slot knows the slot wasn't overwritten in between;
+ * the columns are atomic arrays so that the reads of a slot can't be reordered around the two checks.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class EventJournal {
+
+	//region Entry Types
+
+	static final int BROADCAST_PACKAGE = 0;
+	static final int BROADCAST_APP_STATE = 1;
+	static final int BROADCAST_MESSAGE_STATE = 2;
+	static final int BROADCAST_CONTACT_SELECTED = 3;
+	static final int BROADCAST_ACTIVE_TAB = 4;
+	static final int BROADCAST_PERMISSION_ERRORS = 5;
+	static final int BROADCAST_BT_ACCESSORY_STATE = 6;
+	static final int BROADCAST_AUDIO_STATE = 7;
+	static final int COMMAND = 8; // Followed by the index of the command in _commands
+
+	//endregion
+
+	//region Payload Flags
+
+	static final int APP_STATE_AVAILABLE = 1;
+	static final int APP_STATE_INITIALIZING = 1 << 1;
+	static final int APP_STATE_CONFIGURING = 1 << 2;
+	static final int APP_STATE_LOCKED = 1 << 3;
+	static final int APP_STATE_SIGNED_IN = 1 << 4;
+	static final int APP_STATE_SIGNING_IN = 1 << 5;
+	static final int APP_STATE_SIGNING_OUT = 1 << 6;
+	static final int APP_STATE_CANCELLING = 1 << 7;
+	static final int APP_STATE_WAITING_FOR_NETWORK = 1 << 8;
+	static final int APP_STATE_RECONNECTING = 1 << 9;
+	static final int APP_STATE_BUSY = 1 << 10;
+	static final int APP_STATE_SOLO = 1 << 11;
+
+	static final int MESSAGE_STATE_IN = 1;
+	static final int MESSAGE_STATE_OUT = 1 << 1;
+	static final int MESSAGE_STATE_CONNECTING = 1 << 2;
+
+	//endregion
+
+	//region Private Properties
+
+	private static final int _capacity = 512; // Power of two
+	private static final String[] _types = {"package", "app state", "message state", "contact selected", "active tab",
+			"permission error", "bt accessory state", "audio state"};
+	private static final String[] _commands = {Constants.VALUE_BEGIN_MESSAGE, Constants.VALUE_END_MESSAGE, Constants.VALUE_REPLAY_MESSAGE,
+			Constants.VALUE_CONNECT, Constants.VALUE_DISCONNECT, Constants.VALUE_MUTE, Constants.VALUE_UNMUTE, Constants.VALUE_SET_STATUS,
+			Constants.VALUE_STAY_AWAKE, Constants.VALUE_SELECT_CONTACT, Constants.VALUE_SIGN_IN, Constants.VALUE_SIGN_OUT, Constants.VALUE_CANCEL,
+			Constants.VALUE_SET_AUTO_RUN, Constants.VALUE_SET_AUTO_CHANNELS, Constants.VALUE_SET_EID, Constants.VALUE_SET_SHOW_BT_ACCESSORIES_NOTIFICATIONS,
+			Constants.VALUE_LOCK, Constants.VALUE_SET_AUDIO};
+	private static final String[] _appStateFlags = {"available", "initializing", "configuring", "locked", "signed in", "signing in",
+			"signing out", "cancelling", "waiting for network", "reconnecting", "busy", "solo"};
+	private static final String[] _messageStateFlags = {"in", "out", "connecting"};
+
+	private final AtomicLong _next = new AtomicLong(); // Sequence number of the next entry
+	private final AtomicLongArray _sequences = new AtomicLongArray(_capacity); // Sequence number of the entry in each slot; -1 while it's being written
+	private final AtomicLongArray _times = new AtomicLongArray(_capacity); // SystemClock.elapsedRealtime()
+	private final AtomicIntegerArray _entryTypes = new AtomicIntegerArray(_capacity);
+	private final AtomicLongArray _payloads = new AtomicLongArray(_capacity);
+
+	//endregion
+
+	//region Package Private Methods
+
+	EventJournal() {
+		for (int i = 0; i < _capacity; ++i) {
+			_sequences.set(i, -1);
+		}
+	}
+
+	void record(int type, long payload) {
+		long sequence = _next.getAndIncrement();
+		int slot = (int) (sequence & (_capacity - 1));
+		_sequences.set(slot, -1);
+		_times.set(slot, SystemClock.elapsedRealtime());
+		_entryTypes.set(slot, type);
+		_payloads.set(slot, payload);
+		_sequences.set(slot, sequence);
+	}
+
+	void recordCommand(String command, long payload) {
+		record(COMMAND + commandIndex(command), payload);
+	}
+
+	// Returns the number of entries recorded since the journal was created, including the overwritten ones
+	long getRecorded() {
+		return _next.get();
+	}
+
+	void dump(PrintWriter writer) {
+		if (writer == null) {
+			return;
+		}
+		// Copy the entries first so that formatting doesn't hold up writers
+		long end = _next.get();
+		long start = Math.max(0, end - _capacity);
+		int count = (int) (end - start);
+		long[] sequences = new long[count];
+		long[] times = new long[count];
+		int[] types = new int[count];
+		long[] payloads = new long[count];
+		int copied = 0;
+		for (long sequence = start; sequence < end; ++sequence) {
+			int slot = (int) (sequence & (_capacity - 1));
+			if (_sequences.get(slot) != sequence) {
+				continue; // Still being written or already overwritten
+			}
+			long time = _times.get(slot);
+			int type = _entryTypes.get(slot);
+			long payload = _payloads.get(slot);
+			if (_sequences.get(slot) != sequence) {
+				continue;
+			}
+			sequences[copied] = sequence;
+			times[copied] = time;
+			types[copied] = type;
+			payloads[copied] = payload;
+			++copied;
+		}
+		// Entry times are monotonic; convert them to wall clock time for matching with user reports
+		long offset = System.currentTimeMillis() - SystemClock.elapsedRealtime();
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+		Date date = new Date();
+		StringBuilder line = new StringBuilder();
+		writer.println("Zello SDK event journal: " + copied + " of " + end + " entries");
+		for (int i = 0; i < copied; ++i) {
+			date.setTime(times[i] + offset);
+			line.setLength(0);
+			line.append(format.format(date)).append(" #").append(sequences[i]).append(' ');
+			describe(line, types[i], payloads[i]);
+			writer.println(line);
+		}
+		writer.flush();
+	}
+
+	static long appStatePayload(AppState state) {
+		long payload = 0;
+		payload |= state._available ? APP_STATE_AVAILABLE : 0;
+		payload |= state._initializing ? APP_STATE_INITIALIZING : 0;
+		payload |= state._configuring ? APP_STATE_CONFIGURING : 0;
+		payload |= state._locked ? APP_STATE_LOCKED : 0;
+		payload |= state._signedIn ? APP_STATE_SIGNED_IN : 0;
+		payload |= state._signingIn ? APP_STATE_SIGNING_IN : 0;
+		payload |= state._signingOut ? APP_STATE_SIGNING_OUT : 0;
+		payload |= state._cancelling ? APP_STATE_CANCELLING : 0;
+		payload |= state._waitingForNetwork ? APP_STATE_WAITING_FOR_NETWORK : 0;
+		payload |= state._reconnectTimer >= 0 ? APP_STATE_RECONNECTING : 0;
+		payload |= state._busy ? APP_STATE_BUSY : 0;
+		payload |= state._solo ? APP_STATE_SOLO : 0;
+		return payload;
+	}
+
+	static long messageStatePayload(MessageIn in, MessageOut out) {
+		long payload = 0;
+		payload |= in._active ? MESSAGE_STATE_IN : 0;
+		payload |= out._active ? MESSAGE_STATE_OUT : 0;
+		payload |= out._connecting ? MESSAGE_STATE_CONNECTING : 0;
+		return payload;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private static int commandIndex(String command) {
+		// Commands are passed as the same constants, so identity is checked before the contents
+		for (int i = 0; i < _commands.length; ++i) {
+			if (_commands[i] == command) {
+				return i;
+			}
+		}
+		for (int i = 0; i < _commands.length; ++i) {
+			if (_commands[i].equals(command)) {
+				return i;
+			}
+		}
+		return _commands.length;
+	}
+
+	private static void describe(StringBuilder line, int type, long payload) {
+		if (type >= COMMAND) {
+			int command = type - COMMAND;
+			line.append("command ").append(command < _commands.length ? _commands[command] : "?");
+			if (payload != 0) {
+				line.append(' ').append(payload);
+			}
+			return;
+		}
+		line.append("broadcast ").append(type < _types.length ? _types[type] : "?");
+		switch (type) {
+			case BROADCAST_APP_STATE: {
+				appendFlags(line, payload, _appStateFlags);
+				break;
+			}
+			case BROADCAST_MESSAGE_STATE: {
+				appendFlags(line, payload, _messageStateFlags);
+				break;
+			}
+			case BROADCAST_PACKAGE: {
+				break;
+			}
+			default: {
+				line.append(' ').append(payload);
+			}
+		}
+	}
+
+	private static void appendFlags(StringBuilder line, long payload, String[] names) {
+		line.append(" [");
+		boolean first = true;
+		for (int i = 0; i < names.length; ++i) {
+			if ((payload & (1L << i)) != 0) {
+				if (!first) {
+					line.append(", ");
+				}
+				line.append(names[i]);
+				first = false;
+			}
+		}
+		line.append(']');
+	}
+
+	//endregion
+
+}
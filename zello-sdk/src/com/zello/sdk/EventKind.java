@@ -0,0 +1,43 @@
+package com.zello.sdk;
+
+/**
+ * The <code>EventKind</code> enum represents the kinds of Zello SDK events; each value corresponds to one method of {@link Events}.
+ * @see Zello#subscribeToEvents(Events, java.util.EnumSet, java.util.concurrent.Executor)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public enum EventKind {
+
+	/**
+	 * See {@link Events#onSelectedContactChanged()}.
+	 */
+	SELECTED_CONTACT,
+	/**
+	 * See {@link Events#onMessageStateChanged()}.
+	 */
+	MESSAGE_STATE,
+	/**
+	 * See {@link Events#onAppStateChanged()}.
+	 */
+	APP_STATE,
+	/**
+	 * See {@link Events#onLastContactsTabChanged(Tab)}.
+	 */
+	LAST_CONTACTS_TAB,
+	/**
+	 * See {@link Events#onContactsChanged()}.
+	 */
+	CONTACTS,
+	/**
+	 * See {@link Events#onAudioStateChanged()}.
+	 */
+	AUDIO_STATE,
+	/**
+	 * See {@link Events#onMicrophonePermissionNotGranted()}.
+	 */
+	MICROPHONE_PERMISSION,
+	/**
+	 * See {@link Events#onBluetoothAccessoryStateChanged(BluetoothAccessoryType, BluetoothAccessoryState, String, String)}.
+	 */
+	BLUETOOTH_ACCESSORY_STATE
+
+}
@@ -2,8 +2,14 @@ package com.zello.sdk;
 
 import android.app.Activity;
 
+import java.util.concurrent.Executor;
+
 /**
  * The <code>Events</code> interface enables monitoring of Zello SDK state and property changes
+ * <p>
+ * The callbacks are invoked on the UI thread, unless the handler was subscribed with {@link Zello#subscribeToEvents(Events, Executor)},
+ * in which case they run on the executor of the subscription.
+ * </p>
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
 public interface Events {
@@ -78,11 +84,12 @@ public interface Events {
 	 * To retrieve the current <code>Contacts</code> snapshot, call the {@link Zello#getContacts()} method.
 	 * </p>
 	 * <p>
-	 * When dealing with large contact lists (1000+ contacts), the best approach is to run both <code>getContacts()</code>
-	 * and any contact processing in a background thread and then post the result to UI thread for display.
+	 * When dealing with large contact lists (1000+ contacts), use {@link Contacts#loadAsync(ContactsCallback)} to let
+	 * the SDK query and decode the list on its own background thread and deliver the result on the UI thread.
 	 * </p>
 	 *
 	 * @see Zello#getContacts()
+	 * @see Contacts#loadAsync(ContactsCallback)
 	 */
 	void onContactsChanged();
 
@@ -0,0 +1,114 @@
+package com.zello.sdk;
+
+/**
+ * A single invocation of an {@link Events} method, so that it can be delivered to every subscriber
+ * on the thread the subscriber chose.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+abstract class EventsCall {
+
+	//region Calls Without Arguments
+
+	static final EventsCall contactsChanged = new EventsCall(EventKind.CONTACTS, true) {
+		@Override
+		void invoke(Events events) {
+			events.onContactsChanged();
+		}
+	};
+
+	static final EventsCall audioStateChanged = new EventsCall(EventKind.AUDIO_STATE, true) {
+		@Override
+		void invoke(Events events) {
+			events.onAudioStateChanged();
+		}
+	};
+
+	static final EventsCall microphonePermissionNotGranted = new EventsCall(EventKind.MICROPHONE_PERMISSION, true) {
+		@Override
+		void invoke(Events events) {
+			events.onMicrophonePermissionNotGranted();
+		}
+	};
+
+	//endregion
+
+	//region Calls With Arguments
+
+	static EventsCall selectedContactChanged(final StateSnapshot state) {
+		return new EventsCall(EventKind.SELECTED_CONTACT, true) {
+			@Override
+			void invoke(Events events) {
+				events.onSelectedContactChanged();
+			}
+
+			@Override
+			void invoke(StateEvents events) {
+				events.onSelectedContactChanged(state);
+			}
+		};
+	}
+
+	static EventsCall messageStateChanged(final StateSnapshot state) {
+		return new EventsCall(EventKind.MESSAGE_STATE, true) {
+			@Override
+			void invoke(Events events) {
+				events.onMessageStateChanged();
+			}
+
+			@Override
+			void invoke(StateEvents events) {
+				events.onMessageStateChanged(state);
+			}
+		};
+	}
+
+	static EventsCall appStateChanged(final StateSnapshot state) {
+		return new EventsCall(EventKind.APP_STATE, true) {
+			@Override
+			void invoke(Events events) {
+				events.onAppStateChanged();
+			}
+
+			@Override
+			void invoke(StateEvents events) {
+				events.onAppStateChanged(state);
+			}
+		};
+	}
+
+	static EventsCall lastContactsTabChanged(final Tab tab) {
+		return new EventsCall(EventKind.LAST_CONTACTS_TAB, true) {
+			@Override
+			void invoke(Events events) {
+				events.onLastContactsTabChanged(tab);
+			}
+		};
+	}
+
+	static EventsCall bluetoothAccessoryStateChanged(final BluetoothAccessoryType type, final BluetoothAccessoryState state, final String name, final String description) {
+		// Each call describes a transition of one accessory, so a later call doesn't make it redundant
+		return new EventsCall(EventKind.BLUETOOTH_ACCESSORY_STATE, false) {
+			@Override
+			void invoke(Events events) {
+				events.onBluetoothAccessoryStateChanged(type, state, name, description);
+			}
+		};
+	}
+
+	//endregion
+
+	final EventKind _kind;
+	final boolean _conflatable; // A later call of the same kind supersedes this one
+
+	EventsCall(EventKind kind, boolean conflatable) {
+		_kind = kind;
+		_conflatable = conflatable;
+	}
+
+	abstract void invoke(Events events);
+
+	// Only state changes have a StateEvents callback
+	void invoke(StateEvents events) {
+	}
+
+}
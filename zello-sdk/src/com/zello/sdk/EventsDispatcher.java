@@ -0,0 +1,222 @@
+package com.zello.sdk;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Delivers {@link Events} and {@link StateEvents} to subscribers, each on its own executor or on the UI thread.
+ * <p>
+ * Events are fired on the UI thread. Handlers without an executor are called right away; for the others
+ * the call is handed to their executor directly, without going through the main looper first.
+ * </p>
+ * <p>
+ * Each subscription only receives the kinds of events it asked for; the subscriptions interested in each kind are kept
+ * in a separate array, so firing an event doesn't visit the others.
+ * </p>
+ * <p>
+ * When conflation is enabled, fired events are queued instead and delivered together before the next frame
+ * or after a fixed interval. An event that is already queued is replaced with a later event of the same kind.
+ * </p>
+ * <p>
+ * Subscriptions whose weakly held handlers were garbage collected are removed the next time an event is delivered to them.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class EventsDispatcher {
+
+	//region Private Properties
+
+	private static final EventKind[] _kinds = EventKind.values();
+
+	private final ListenerRegistry<EventsSubscription> _subscriptions = new ListenerRegistry<>(new EventsSubscription[0]);
+	private volatile EventsSubscription[][] _byKind = index(new EventsSubscription[0]); // Interested subscriptions indexed by EventKind ordinal
+	private volatile boolean _conflate;
+	private volatile long _conflationInterval; // 0 to deliver once per frame
+	private final ArrayList<EventsCall> _pending = new ArrayList<>(); // Queued events in the order they were first fired
+	private boolean _scheduled;
+	private Handler _handler;
+	private FrameScheduler _frames;
+	private final Runnable _flush = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
+	//endregion
+
+	//region Package Private Methods
+
+	// Subscribing a handler again replaces its executor
+	synchronized void subscribe(EventsSubscription subscription) {
+		unsubscribe(subscription);
+		_subscriptions.add(subscription);
+		_byKind = index(_subscriptions.get());
+	}
+
+	// Removes the subscription of the same handler
+	synchronized void unsubscribe(EventsSubscription subscription) {
+		for (EventsSubscription existing : _subscriptions.get()) {
+			if (existing.equals(subscription)) {
+				existing.cancel();
+				_subscriptions.remove(existing);
+			}
+		}
+		_byKind = index(_subscriptions.get());
+	}
+
+	// Removes all subscriptions bound to the activity; called when the activity is destroyed
+	synchronized void unsubscribeOwner(Activity activity) {
+		boolean removed = false;
+		for (EventsSubscription existing : _subscriptions.get()) {
+			if (existing.isOwnedBy(activity)) {
+				existing.cancel();
+				_subscriptions.remove(existing);
+				removed = true;
+			}
+		}
+		if (removed) {
+			_byKind = index(_subscriptions.get());
+		}
+	}
+
+	// Removes the subscriptions whose handlers were garbage collected
+	synchronized void prune() {
+		int pruned = 0;
+		for (EventsSubscription existing : _subscriptions.get()) {
+			if (!existing.isAlive()) {
+				existing.cancel();
+				_subscriptions.remove(existing);
+				++pruned;
+			}
+		}
+		if (pruned > 0) {
+			_byKind = index(_subscriptions.get());
+			Zello.getInstance().metrics._eventsSubscriptionsPruned.addAndGet(pruned);
+		}
+	}
+
+	synchronized void clear() {
+		for (EventsSubscription subscription : _subscriptions.get()) {
+			subscription.cancel();
+		}
+		_subscriptions.clear();
+		_byKind = index(_subscriptions.get());
+	}
+
+	boolean isEmpty() {
+		return _subscriptions.isEmpty();
+	}
+
+	// Lets the SDK skip preparing events that nobody would receive
+	boolean hasSubscribers(EventKind kind) {
+		return _byKind[kind.ordinal()].length > 0;
+	}
+
+	void setConflation(boolean enabled, long interval) {
+		_conflationInterval = Math.max(0, interval);
+		_conflate = enabled;
+	}
+
+	// Called on the UI thread
+	void fire(EventsCall call) {
+		if (!hasSubscribers(call._kind) && _pending.isEmpty()) {
+			return;
+		}
+		Metrics metrics = Zello.getInstance().metrics;
+		// Events of a kind nobody subscribed to only get this far while other events are queued
+		if (hasSubscribers(call._kind)) {
+			metrics._eventsFired.incrementAndGet();
+		}
+		if (!_conflate) {
+			// Deliver the events queued before conflation was turned off first to keep the order
+			if (!_pending.isEmpty()) {
+				flush();
+			}
+			deliver(call);
+			return;
+		}
+		if (call._conflatable) {
+			for (int i = 0; i < _pending.size(); ++i) {
+				if (_pending.get(i)._kind == call._kind) {
+					_pending.set(i, call);
+					metrics._eventsConflated.incrementAndGet();
+					return;
+				}
+			}
+		}
+		_pending.add(call);
+		schedule();
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private void deliver(EventsCall call) {
+		boolean collected = false;
+		for (EventsSubscription subscription : _byKind[call._kind.ordinal()]) {
+			if (!subscription.deliver(call)) {
+				collected = true;
+			}
+		}
+		if (collected) {
+			prune();
+		}
+	}
+
+	private static EventsSubscription[][] index(EventsSubscription[] subscriptions) {
+		EventsSubscription[][] byKind = new EventsSubscription[_kinds.length][];
+		for (EventKind kind : _kinds) {
+			int count = 0;
+			EventsSubscription[] interested = new EventsSubscription[subscriptions.length];
+			for (EventsSubscription subscription : subscriptions) {
+				if (subscription.accepts(kind)) {
+					interested[count++] = subscription;
+				}
+			}
+			byKind[kind.ordinal()] = count == interested.length ? interested : Arrays.copyOf(interested, count);
+		}
+		return byKind;
+	}
+
+	private void schedule() {
+		if (_scheduled) {
+			return;
+		}
+		_scheduled = true;
+		if (_handler == null) {
+			_handler = new Handler(Looper.getMainLooper());
+			_frames = FrameScheduler.create(_handler, _flush);
+		}
+		long interval = _conflationInterval;
+		if (interval > 0) {
+			_handler.postDelayed(_flush, interval);
+		} else {
+			_frames.post();
+		}
+	}
+
+	private void flush() {
+		if (_scheduled) {
+			_scheduled = false;
+			_handler.removeCallbacks(_flush);
+			_frames.cancel();
+		}
+		if (_pending.isEmpty()) {
+			return;
+		}
+		EventsCall[] calls = _pending.toArray(new EventsCall[_pending.size()]);
+		_pending.clear();
+		for (EventsCall call : calls) {
+			deliver(call);
+		}
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,143 @@
+package com.zello.sdk;
+
+import android.app.Activity;
+import android.util.Log;
+
+import java.lang.ref.WeakReference;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link Events} or {@link StateEvents} handler together with the executor that its callbacks run on.
+ * Subscriptions are equal when their handlers are, so a handler can only be subscribed once through each interface.
+ * <p>
+ * A handler can be held weakly, in which case the subscription ends when the handler is garbage collected,
+ * and can be bound to an activity, in which case the subscription ends when the activity is destroyed.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class EventsSubscription {
+
+	//region Private Properties
+
+	private final Object _listener; // Events or StateEvents; null when the handler is held weakly
+	private final WeakReference<Object> _weakListener;
+	private final boolean _stateEvents; // The handler implements StateEvents rather than Events
+	private final int _hash;
+	private final Executor _executor; // Null to call the handler on the UI thread
+	private final EnumSet<EventKind> _kinds; // Events the handler is interested in
+	private final WeakReference<Activity> _owner; // Nullable; the subscription ends when the activity is destroyed
+	private volatile boolean _active = true;
+
+	//endregion
+
+	//region Package Private Methods
+
+	EventsSubscription(Events events, StateEvents stateEvents, EnumSet<EventKind> kinds, Executor executor) {
+		this(events, stateEvents, kinds, executor, false, null);
+	}
+
+	// Null kinds subscribe to all events the handler has a callback for
+	EventsSubscription(Events events, StateEvents stateEvents, EnumSet<EventKind> kinds, Executor executor, boolean weak, Activity owner) {
+		Object listener = events != null ? events : stateEvents;
+		_listener = weak ? null : listener;
+		_weakListener = weak ? new WeakReference<>(listener) : null;
+		_stateEvents = events == null;
+		_hash = listener.hashCode();
+		_executor = executor;
+		_owner = owner != null ? new WeakReference<>(owner) : null;
+		EnumSet<EventKind> supported = events != null ? EnumSet.allOf(EventKind.class) :
+				EnumSet.of(EventKind.SELECTED_CONTACT, EventKind.MESSAGE_STATE, EventKind.APP_STATE);
+		if (kinds != null) {
+			supported.retainAll(kinds);
+		}
+		_kinds = supported;
+	}
+
+	boolean accepts(EventKind kind) {
+		return _kinds.contains(kind);
+	}
+
+	// Stops calls that were queued on the executor but haven't started yet
+	void cancel() {
+		_active = false;
+	}
+
+	boolean isActive() {
+		return _active;
+	}
+
+	boolean isOwnedBy(Activity activity) {
+		return _owner != null && _owner.get() == activity;
+	}
+
+	// Returns false if the handler was garbage collected and the subscription should be removed
+	boolean isAlive() {
+		return getListener() != null;
+	}
+
+	// Called on the UI thread; returns false if the handler was garbage collected
+	boolean deliver(final EventsCall call) {
+		Object listener = getListener();
+		if (listener == null) {
+			return false;
+		}
+		Executor executor = _executor;
+		if (executor == null) {
+			invoke(listener, call);
+			return true;
+		}
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					Object listener = getListener();
+					if (_active && listener != null) {
+						invoke(listener, call);
+					}
+				}
+			});
+		} catch (Throwable t) {
+			// RejectedExecutionException
+			Log.i("zello sdk", "Error in EventsSubscription.deliver: " + t.toString());
+		}
+		return true;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private Object getListener() {
+		return _weakListener != null ? _weakListener.get() : _listener;
+	}
+
+	private void invoke(Object listener, EventsCall call) {
+		if (_stateEvents) {
+			call.invoke((StateEvents) listener);
+		} else {
+			call.invoke((Events) listener);
+		}
+	}
+
+	//endregion
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true; // Also matches a subscription whose handler was garbage collected
+		}
+		if (!(o instanceof EventsSubscription)) {
+			return false;
+		}
+		EventsSubscription subscription = (EventsSubscription) o;
+		Object listener = getListener();
+		return _stateEvents == subscription._stateEvents && listener != null && listener.equals(subscription.getListener());
+	}
+
+	@Override
+	public int hashCode() {
+		return _hash;
+	}
+
+}
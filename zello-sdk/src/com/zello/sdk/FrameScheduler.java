@@ -0,0 +1,33 @@
+package com.zello.sdk;
+
+import android.os.Build;
+import android.os.Handler;
+
+/**
+ * Runs a task once before the next frame is drawn. Must be used on the UI thread.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+abstract class FrameScheduler {
+
+	protected final Handler _handler;
+	protected final Runnable _task;
+
+	FrameScheduler(Handler handler, Runnable task) {
+		_handler = handler;
+		_task = task;
+	}
+
+	abstract void post();
+
+	abstract void cancel();
+
+	static FrameScheduler create(Handler handler, Runnable task) {
+		int api = Util.getApiLevel();
+		if (api >= Build.VERSION_CODES.JELLY_BEAN) {
+			return new FrameScheduler16(handler, task);
+		} else {
+			return new FrameScheduler03(handler, task);
+		}
+	}
+
+}
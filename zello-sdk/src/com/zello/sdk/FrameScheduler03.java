@@ -0,0 +1,25 @@
+package com.zello.sdk;
+
+import android.os.Handler;
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+class FrameScheduler03 extends FrameScheduler {
+
+	// Choreographer is not available; assume a 60 Hz display
+	private static final long _frameMillis = 16;
+
+	FrameScheduler03(Handler handler, Runnable task) {
+		super(handler, task);
+	}
+
+	@Override
+	void post() {
+		_handler.postDelayed(_task, _frameMillis);
+	}
+
+	@Override
+	void cancel() {
+		_handler.removeCallbacks(_task);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.zello.sdk;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.view.Choreographer;
+
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+@SuppressWarnings({"WeakerAccess", "unused"})
+class FrameScheduler16 extends FrameScheduler {
+
+	private final Choreographer.FrameCallback _callback = new Choreographer.FrameCallback() {
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			_task.run();
+		}
+	};
+
+	FrameScheduler16(Handler handler, Runnable task) {
+		super(handler, task);
+	}
+
+	@Override
+	void post() {
+		Choreographer.getInstance().postFrameCallback(_callback);
+	}
+
+	@Override
+	void cancel() {
+		Choreographer.getInstance().removeFrameCallback(_callback);
+	}
+
+}
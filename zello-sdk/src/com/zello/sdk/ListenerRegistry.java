@@ -0,0 +1,95 @@
+package com.zello.sdk;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write set of listeners.
+ * <p>
+ * Listeners are kept in an array that is replaced as a whole when a listener is added or removed, so dispatching
+ * only reads a volatile field and iterates over an array that never changes. Subscription changes can be made from
+ * any thread, including from inside a callback; a dispatch that is in progress keeps using the array it started with.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class ListenerRegistry<T> {
+
+	//region Private Properties
+
+	private final T[] _empty;
+	private volatile T[] _listeners;
+
+	//endregion
+
+	//region Package Private Methods
+
+	ListenerRegistry(T[] empty) {
+		_empty = empty;
+		_listeners = empty;
+	}
+
+	// Returns the current listeners; the array must not be modified
+	T[] get() {
+		return _listeners;
+	}
+
+	boolean isEmpty() {
+		return _listeners.length == 0;
+	}
+
+	boolean contains(T listener) {
+		return indexOf(_listeners, listener) >= 0;
+	}
+
+	synchronized boolean add(T listener) {
+		T[] listeners = _listeners;
+		if (listener == null || indexOf(listeners, listener) >= 0) {
+			return false;
+		}
+		T[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+		updated[listeners.length] = listener;
+		_listeners = updated;
+		return true;
+	}
+
+	synchronized boolean remove(T listener) {
+		T[] listeners = _listeners;
+		int index = indexOf(listeners, listener);
+		if (index < 0) {
+			return false;
+		}
+		if (listeners.length == 1) {
+			_listeners = _empty;
+			return true;
+		}
+		T[] updated = Arrays.copyOf(listeners, listeners.length - 1);
+		System.arraycopy(listeners, index + 1, updated, index, listeners.length - index - 1);
+		_listeners = updated;
+		return true;
+	}
+
+	// Returns the listeners that were removed
+	synchronized T[] clear() {
+		T[] listeners = _listeners;
+		_listeners = _empty;
+		return listeners;
+	}
+
+	//endregion
+
+	//region Private Methods
+
+	private static <T> int indexOf(T[] listeners, T listener) {
+		if (listener == null) {
+			return -1;
+		}
+		for (int i = 0; i < listeners.length; ++i) {
+			if (listener.equals(listeners[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	//endregion
+
+}
@@ -85,8 +85,13 @@ public class MessageIn {
 
 	//region Package Private Methods
 
+	// Overridden by the unmodifiable copies held by StateSnapshot
+	void checkWritable() {
+	}
+
 	void copyTo(MessageIn message) {
 		if (message != null) {
+			message.checkWritable();
 			_from.copyTo(message._from);
 			_author.copyTo(message._author);
 			message._active = _active;
@@ -77,8 +77,13 @@ public class MessageOut {
 
 	//region Package Private Methods
 
+	// Overridden by the unmodifiable copies held by StateSnapshot
+	void checkWritable() {
+	}
+
 	void copyTo(MessageOut message) {
 		if (message != null) {
+			message.checkWritable();
 			_to.copyTo(message._to);
 			message._active = _active;
 			message._connecting = _connecting;
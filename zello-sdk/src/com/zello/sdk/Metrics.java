@@ -0,0 +1,159 @@
+package com.zello.sdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     The <code>Metrics</code> class contains counters that describe the work done by the Zello SDK.
+ * </p>
+ * <p>
+ *     To use, retrieve the current values using the <code>Zello.getMetrics(Metrics)</code> method.
+ *     The counters are reset when the SDK is configured.
+ * </p>
+ * @see Zello#getMetrics(Metrics)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class Metrics {
+
+	//region Package Private Variables
+
+	final AtomicLong _contactsNotifications = new AtomicLong();
+	final AtomicLong _contactsNotificationsMerged = new AtomicLong();
+	final AtomicLong _contactsInvalidations = new AtomicLong();
+	final AtomicLong _contactsRowRefreshes = new AtomicLong();
+	final AtomicLong _contactsStringsDeduplicated = new AtomicLong();
+	final AtomicLong _contactsStringBytesSaved = new AtomicLong();
+	final AtomicLong _eventsFired = new AtomicLong();
+	final AtomicLong _eventsConflated = new AtomicLong();
+	final AtomicLong _eventsSubscriptionsPruned = new AtomicLong();
+
+	//endregion
+
+	/**
+	 * <p>
+	 *     Resets the <code>Metrics</code> instance back to the default values.
+	 * </p>
+	 * <p>
+	 *     This method only resets the values for this copied instance of the <code>Metrics</code>.
+	 * </p>
+	 */
+	public void reset() {
+		_contactsNotifications.set(0);
+		_contactsNotificationsMerged.set(0);
+		_contactsInvalidations.set(0);
+		_contactsRowRefreshes.set(0);
+		_contactsStringsDeduplicated.set(0);
+		_contactsStringBytesSaved.set(0);
+		_eventsFired.set(0);
+		_eventsConflated.set(0);
+		_eventsSubscriptionsPruned.set(0);
+	}
+
+	@Override
+	public Metrics clone() {
+		Metrics metrics = new Metrics();
+		copyTo(metrics);
+		return metrics;
+	}
+
+	//region Public Getters
+
+	/**
+	 * Returns the number of change notifications received from the ZelloWork app contacts provider.
+	 * @return The number of contacts change notifications.
+	 */
+	public long getContactsNotifications() {
+		return _contactsNotifications.get();
+	}
+
+	/**
+	 * Returns the number of contacts change notifications that were merged into an already pending invalidation.
+	 * @return The number of merged contacts change notifications.
+	 * @see Zello#setContactsChangeCoalescing(long, long)
+	 */
+	public long getContactsNotificationsMerged() {
+		return _contactsNotificationsMerged.get();
+	}
+
+	/**
+	 * Returns the number of times the contact list was invalidated in response to change notifications.
+	 * @return The number of contacts invalidations.
+	 */
+	public long getContactsInvalidations() {
+		return _contactsInvalidations.get();
+	}
+
+	/**
+	 * Returns the number of contacts that were re-read individually in response to row-level change notifications
+	 * instead of invalidating the whole contact list.
+	 * @return The number of refreshed contact rows.
+	 */
+	public long getContactsRowRefreshes() {
+		return _contactsRowRefreshes.get();
+	}
+
+	/**
+	 * Returns the number of contact text values that were replaced with an identical string kept from an earlier snapshot
+	 * of the contact list while building contact list snapshots. Values repeated within a snapshot are stored once and not counted.
+	 * @return The number of deduplicated strings.
+	 */
+	public long getContactsStringsDeduplicated() {
+		return _contactsStringsDeduplicated.get();
+	}
+
+	/**
+	 * Returns the estimated number of bytes of heap saved by deduplicating contact text values.
+	 * @return The estimated number of bytes saved.
+	 * @see #getContactsStringsDeduplicated()
+	 */
+	public long getContactsStringBytesSaved() {
+		return _contactsStringBytesSaved.get();
+	}
+
+	/**
+	 * Returns the number of events raised by the SDK that had at least one interested subscriber, counting each event once regardless of the number of subscribers.
+	 * @return The number of events.
+	 */
+	public long getEventsFired() {
+		return _eventsFired.get();
+	}
+
+	/**
+	 * Returns the number of events that were dropped because a later event of the same kind was delivered in their place.
+	 * @return The number of conflated events.
+	 * @see Zello#setEventsConflation(boolean, long)
+	 */
+	public long getEventsConflated() {
+		return _eventsConflated.get();
+	}
+
+	/**
+	 * Returns the number of weak event subscriptions that were removed because their handlers were garbage collected.
+	 * @return The number of pruned subscriptions.
+	 * @see Zello#subscribeToEventsWeakly(Events, java.util.EnumSet, java.util.concurrent.Executor)
+	 */
+	public long getEventsSubscriptionsPruned() {
+		return _eventsSubscriptionsPruned.get();
+	}
+
+	//endregion
+
+	//region Package Private Methods
+
+	void copyTo(Metrics metrics) {
+		if (metrics != null) {
+			metrics._contactsNotifications.set(_contactsNotifications.get());
+			metrics._contactsNotificationsMerged.set(_contactsNotificationsMerged.get());
+			metrics._contactsInvalidations.set(_contactsInvalidations.get());
+			metrics._contactsRowRefreshes.set(_contactsRowRefreshes.get());
+			metrics._contactsStringsDeduplicated.set(_contactsStringsDeduplicated.get());
+			metrics._contactsStringBytesSaved.set(_contactsStringBytesSaved.get());
+			metrics._eventsFired.set(_eventsFired.get());
+			metrics._eventsConflated.set(_eventsConflated.get());
+			metrics._eventsSubscriptionsPruned.set(_eventsSubscriptionsPruned.get());
+		}
+	}
+
+	//endregion
+
+}
@@ -15,6 +15,10 @@ import android.os.Message;
 import android.util.Log;
 
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * The Sdk class acts as the implementation of the Zello SDK methods.
@@ -33,9 +37,15 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 	private Contact _selectedContact = new Contact();
 	private MessageIn _messageIn = new MessageIn();
 	private MessageOut _messageOut = new MessageOut();
-	private Contacts _contacts;
+	private volatile Contacts _contacts; // Created when first needed
+	private boolean _contactsAvailable; // The contact list can be created
+	private final Object _contactsLock = new Object();
+	private volatile String _contactsAccount; // Key of the account the contact list belongs to; null while unknown
+	private final LinkedHashMap<ContactsQuery, Contacts> _queriedContacts = new LinkedHashMap<>(16, 0.75f, true); // Filtered contact lists by query, least recently used first; guarded by itself
 	private Audio _audio;
 	private AppState _appState = new AppState();
+	private volatile StateSnapshot _state; // Last published state; null until the state first changes or is requested
+	private Tab _lastTab; // Last reported contact list tab; null until reported
 	private boolean _serviceBound; // Service is bound
 	private Intent _serviceIntent; // Service connect/disconnect intent
 	private boolean _serviceConnecting; // Service is bound but is still connecting
@@ -52,6 +62,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 	private BroadcastReceiver _receiverBtAccessoryState; // Broadcast receiver for bluetooth accessory state broadcasts
 
 	private static final int AWAKE_TIMER = 1;
+	private static final int QUERIED_CONTACTS_LIMIT = 8; // Each filtered list holds a cursor, a content observer and a worker thread
 
 	private static final String _pttActivityClass = "com.zello.sdk.Activity";
 	private static final String _pttPermissionsActivityClass = "com.zello.sdk.PermissionsActivity";
@@ -77,6 +88,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		_package = Util.toLowerCaseLexicographically(Util.emptyIfNull(packageName));
 		_context = context.getApplicationContext();
 		_handler = new SafeHandler<>(this);
+		_contactsAccount = ContactsCache.readAccount(_context, _package);
 		_appState._available = isAppAvailable();
 		// Spin up the main app
 		connect();
@@ -84,6 +96,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		_receiverPackage = new BroadcastReceiver() {
 			@Override
 			public void onReceive(Context context, Intent intent) {
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_PACKAGE, 0);
 				updateAppAvailable();
 				if (intent == null || _handler == null) {
 					return;
@@ -136,6 +149,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			@Override
 			public void onReceive(Context context, Intent intent) {
 				updateAppState(intent);
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_APP_STATE, EventJournal.appStatePayload(_appState));
 			}
 		};
 		Intent intentStickyAppState = _context.registerReceiver(_receiverAppState, new IntentFilter(_package + "." + Constants.ACTION_APP_STATE));
@@ -145,6 +159,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		_receiverPermissionErrors = new BroadcastReceiver() {
 			@Override
 			public void onReceive(Context context, Intent intent) {
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_PERMISSION_ERRORS,
+						intent != null ? intent.getIntExtra(Constants.EXTRA_LATEST_PERMISSION_ERROR, PermissionError.NONE.ordinal()) : 0);
 				handlePermissionError(intent);
 			}
 		};
@@ -154,6 +170,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			@Override
 			public void onReceive(Context context, Intent intent) {
 				updateMessageState(intent);
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_MESSAGE_STATE, EventJournal.messageStatePayload(_messageIn, _messageOut));
 			}
 		};
 		Intent intentStickyMessageState = _context.registerReceiver(_receiverMessageState, new IntentFilter(_package + "." + Constants.ACTION_MESSAGE_STATE));
@@ -163,6 +180,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			@Override
 			public void onReceive(Context context, Intent intent) {
 				updateSelectedContact(intent);
+				// The type of the selected contact plus one, or zero when no contact is selected
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_CONTACT_SELECTED, _selectedContact._name != null ? _selectedContact._type.ordinal() + 1 : 0);
 			}
 		};
 		Intent intentStickySelectedContact = _context.registerReceiver(_receiverContactSelected, new IntentFilter(_package + "." + Constants.ACTION_CONTACT_SELECTED));
@@ -172,6 +191,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			@Override
 			public void onReceive(Context context, Intent intent) {
 				updateSelectedTab(intent);
+				Tab tab = _lastTab;
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_ACTIVE_TAB, tab != null ? tab.ordinal() : -1);
 			}
 		};
 		_context.registerReceiver(_receiverActiveTab, new IntentFilter(_activeTabAction));
@@ -179,6 +200,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		_receiverBtAccessoryState = new BroadcastReceiver() {
 			@Override
 			public void onReceive(Context context, Intent intent) {
+				Zello.getInstance().journal.record(EventJournal.BROADCAST_BT_ACCESSORY_STATE,
+						intent != null ? intent.getIntExtra(Constants.EXTRA_STATE, BluetoothAccessoryState.ERROR.ordinal()) : -1);
 				handleBtAccessoryState(intent);
 			}
 		};
@@ -216,6 +239,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		if (contacts != null) {
 			contacts.close();
 		}
+		closeQueriedContacts();
 		Audio audio = _audio;
 		if (audio != null) {
 			audio.close();
@@ -233,7 +257,10 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			_context = null;
 		}
 		_package = "";
-		_contacts = null;
+		synchronized (_contactsLock) {
+			_contacts = null;
+			_contactsAvailable = false;
+		}
 		_audio = null;
 	}
 
@@ -380,7 +407,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_BEGIN_MESSAGE);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	void endMessage() {
@@ -390,7 +417,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_END_MESSAGE);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -404,7 +431,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_REPLAY_MESSAGE);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	public boolean isLastMessageReplayAvailable() {
@@ -426,7 +453,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_CONNECT);
 		intent.putExtra(Constants.EXTRA_CONTACT_NAME, channel);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	void disconnectChannel(String channel) {
@@ -440,7 +467,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_DISCONNECT);
 		intent.putExtra(Constants.EXTRA_CONTACT_NAME, channel);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -460,7 +487,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		intent.putExtra(Constants.EXTRA_COMMAND, mute ? Constants.VALUE_MUTE : Constants.VALUE_UNMUTE);
 		intent.putExtra(Constants.EXTRA_CONTACT_NAME, contact.getName());
 		intent.putExtra(Constants.EXTRA_CONTACT_TYPE, type == ContactType.CHANNEL || type == ContactType.GROUP || type == ContactType.CONVERSATION ? 1 : 0);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -484,7 +511,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 				intent.putExtra(Constants.EXTRA_USERNAME, username);
 				intent.putExtra(Constants.EXTRA_PASSWORD, md5(password));
 				intent.putExtra(Constants.EXTRA_PERISHABLE, perishable);
-				context.sendBroadcast(intent);
+				sendCommand(context, intent, 0);
 				context.startService(_serviceIntent);
 			}
 		} else if (_serviceBound && _serviceConnecting) {
@@ -508,7 +535,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SIGN_OUT);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
+		discardContactsCache();
 	}
 
 	void cancel() {
@@ -523,7 +551,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_CANCEL);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -545,7 +573,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_LOCK);
 		intent.putExtra(Constants.EXTRA_APPLICATION, applicationName);
 		intent.putExtra(Constants.EXTRA_PACKAGE, packageName);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	void unlock() {
@@ -558,7 +586,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_LOCK);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -577,7 +605,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_STATUS);
 		intent.putExtra(Constants.EXTRA_STATE_BUSY, status == Status.BUSY);
 		intent.putExtra(Constants.EXTRA_STATE_SOLO, status == Status.SOLO);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, status != null ? status.ordinal() : 0);
 	}
 
 	void setStatusMessage(String message) {
@@ -591,7 +619,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_STATUS);
 		intent.putExtra(Constants.EXTRA_STATE_STATUS_MESSAGE, Util.emptyIfNull(message));
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	//endregion
@@ -650,8 +678,106 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		_selectedContact.copyTo(contact);
 	}
 
+	StateSnapshot getState() {
+		StateSnapshot state = _state;
+		if (state == null) {
+			state = new StateSnapshot(null, _appState, _messageIn, _messageOut, _selectedContact);
+			_state = state;
+		}
+		return state;
+	}
+
+	// Delivers the current state of every kind the subscription is interested in; called on the UI thread
+	void replayEvents(EventsSubscription subscription) {
+		if (!subscription.isActive()) {
+			return;
+		}
+		StateSnapshot state = null;
+		if (subscription.accepts(EventKind.APP_STATE) || subscription.accepts(EventKind.MESSAGE_STATE) || subscription.accepts(EventKind.SELECTED_CONTACT)) {
+			state = getState();
+		}
+		if (subscription.accepts(EventKind.APP_STATE)) {
+			subscription.deliver(EventsCall.appStateChanged(state));
+		}
+		if (subscription.accepts(EventKind.MESSAGE_STATE)) {
+			subscription.deliver(EventsCall.messageStateChanged(state));
+		}
+		if (subscription.accepts(EventKind.SELECTED_CONTACT)) {
+			subscription.deliver(EventsCall.selectedContactChanged(state));
+		}
+		Tab tab = _lastTab;
+		if (tab != null && subscription.accepts(EventKind.LAST_CONTACTS_TAB)) {
+			subscription.deliver(EventsCall.lastContactsTabChanged(tab));
+		}
+		if (_audio != null && subscription.accepts(EventKind.AUDIO_STATE)) {
+			subscription.deliver(EventsCall.audioStateChanged);
+		}
+		if (_contacts != null && subscription.accepts(EventKind.CONTACTS)) {
+			subscription.deliver(EventsCall.contactsChanged);
+		}
+	}
+
 	Contacts getContacts() {
-		return _contacts;
+		Contacts contacts = _contacts;
+		if (contacts == null) {
+			synchronized (_contactsLock) {
+				contacts = _contacts;
+				Context context = _context;
+				if (contacts == null && _contactsAvailable && context != null) {
+					contacts = new Contacts(_package, _contactsAccount, context, _handler);
+					_contacts = contacts;
+				}
+			}
+		}
+		return contacts;
+	}
+
+	Contacts getContacts(ContactsQuery query) {
+		if (query == null) {
+			return getContacts();
+		}
+		Contacts contacts;
+		Contacts evicted = null;
+		synchronized (_queriedContacts) {
+			contacts = _queriedContacts.get(query);
+			if (contacts == null) {
+				Context context = _context;
+				if (context == null || getContacts() == null) {
+					return null;
+				}
+				contacts = new Contacts(_package, _contactsAccount, context, _handler, query);
+				_queriedContacts.put(query.copy(), contacts);
+				if (_queriedContacts.size() > QUERIED_CONTACTS_LIMIT) {
+					Iterator<Map.Entry<ContactsQuery, Contacts>> eldest = _queriedContacts.entrySet().iterator();
+					evicted = eldest.next().getValue();
+					eldest.remove();
+				}
+			}
+		}
+		if (evicted != null) {
+			evicted.close();
+		}
+		return contacts;
+	}
+
+	void releaseContacts(Contacts contacts) {
+		if (contacts == null) {
+			return;
+		}
+		boolean released = false;
+		synchronized (_queriedContacts) {
+			Iterator<Contacts> iterator = _queriedContacts.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() == contacts) {
+					iterator.remove();
+					released = true;
+					break;
+				}
+			}
+		}
+		if (released) {
+			contacts.close();
+		}
 	}
 
 	Audio getAudio() {
@@ -678,7 +804,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_AUTO_RUN);
 		intent.putExtra(Constants.EXTRA_STATE_AUTO_RUN, enable);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, enable ? 1 : 0);
 	}
 
 	void setAutoConnectChannels(boolean connect) {
@@ -692,7 +818,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_AUTO_CHANNELS);
 		intent.putExtra(Constants.EXTRA_STATE_AUTO_CHANNELS, connect);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, connect ? 1 : 0);
 	}
 
 	void setExternalId(String id) {
@@ -706,7 +832,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_EID);
 		intent.putExtra(Constants.EXTRA_EID, id == null ? "" : id);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	void setSelectedContact(Contact contact) {
@@ -738,7 +864,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_SET_SHOW_BT_ACCESSORIES_NOTIFICATIONS);
 		intent.putExtra(Constants.EXTRA_VALUE, show);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, show ? 1 : 0);
 	}
 
 	//endregion
@@ -828,6 +954,12 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			intent.putExtra(Constants.EXTRA_CONTACT_NAME, name);
 			intent.putExtra(Constants.EXTRA_CONTACT_TYPE, type);
 		}
+		sendCommand(context, intent, name != null && name.length() > 0 ? type + 1 : 0);
+	}
+
+	// Sends a command to the app and records it in the event journal
+	private static void sendCommand(Context context, Intent intent, long payload) {
+		Zello.getInstance().journal.recordCommand(intent.getStringExtra(Constants.EXTRA_COMMAND), payload);
 		context.sendBroadcast(intent);
 	}
 
@@ -841,7 +973,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		Intent intent = new Intent(_package + "." + Constants.ACTION_COMMAND);
 		intent.putExtra(Constants.EXTRA_COMMAND, Constants.VALUE_STAY_AWAKE);
-		context.sendBroadcast(intent);
+		sendCommand(context, intent, 0);
 	}
 
 	private void connect() {
@@ -952,6 +1084,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 	}
 
 	private void updateAppState(Intent intent) {
+		boolean signingOut = _appState._signingOut;
 		_appState.reset();
 		if (intent != null) {
 			updateLastMessageReplayAvailable(intent);
@@ -978,6 +1111,23 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			_appState._externalId = intent.getStringExtra(Constants.EXTRA_EID);
 		}
 		fireAppStateChanged();
+		if (signingOut && !_appState._signedIn && !_appState._signingOut) {
+			discardContactsCache();
+		}
+		// A list created for another account would show and cache the contacts of the wrong user
+		String account = getAccountKey(_appState);
+		if (account != null && !account.equals(_contactsAccount)) {
+			_contactsAccount = account;
+			ContactsCache.writeAccount(_context, _package, account);
+			if (_contacts != null) {
+				updateContacts();
+			}
+		}
+		// The app may not have been ready to answer contact queries when the cached list was served
+		Contacts contacts = _contacts;
+		if (contacts != null) {
+			contacts.refreshIfStale();
+		}
 	}
 
 	private void updateMessageState(Intent intent) {
@@ -1024,9 +1174,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			_messageOut.reset();
 		}
 
-		for (Events event : Zello.getInstance().events) {
-			event.onMessageStateChanged();
-		}
+		StateSnapshot state = publishState(null, _messageIn, _messageOut, null);
+		Zello.getInstance().events.fire(EventsCall.messageStateChanged(state));
 	}
 
 	private void updateLastMessageReplayAvailable(Intent intent) {
@@ -1037,14 +1186,49 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 	}
 
 	private void updateContacts() {
-		Contacts contacts = _contacts;
-		_contacts = null;
+		Contacts contacts;
+		synchronized (_contactsLock) {
+			contacts = _contacts;
+			_contacts = null;
+			_contactsAvailable = _context != null;
+		}
 		if (contacts != null) {
 			contacts.close();
 		}
+		closeQueriedContacts();
+		// Querying the list only pays off if somebody is going to hear about its changes; otherwise it's created on first request
+		if (hasContactsListeners()) {
+			getContacts();
+		}
+	}
+
+	// Forgets the cached contact list of the account that signed out
+	private void discardContactsCache() {
+		Contacts contacts = _contacts;
+		if (contacts != null) {
+			contacts.discardCache();
+		}
+		String account = _contactsAccount;
 		Context context = _context;
-		if (context != null) {
-			_contacts = new Contacts(_package, context, _handler);
+		if (account != null && context != null) {
+			ContactsCache.delete(context, _package, account);
+			ContactsCache.writeAccount(context, _package, null);
+		}
+	}
+
+	private static boolean hasContactsListeners() {
+		Zello zello = Zello.getInstance();
+		return zello.events.hasSubscribers(EventKind.CONTACTS) || !zello.contactsDeltaEvents.isEmpty() || !zello.contactWatches.isEmpty();
+	}
+
+	private void closeQueriedContacts() {
+		ArrayList<Contacts> closed;
+		synchronized (_queriedContacts) {
+			closed = new ArrayList<>(_queriedContacts.values());
+			_queriedContacts.clear();
+		}
+		for (Contacts contacts : closed) {
+			contacts.close();
 		}
 	}
 
@@ -1069,9 +1253,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			_selectedContact.reset();
 		}
 
-		for (Events event : Zello.getInstance().events) {
-			event.onSelectedContactChanged();
-		}
+		StateSnapshot state = publishState(null, null, null, _selectedContact);
+		Zello.getInstance().events.fire(EventsCall.selectedContactChanged(state));
 	}
 
 	private void updateSelectedTab(Intent intent) {
@@ -1079,9 +1262,8 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 			return;
 		}
 		Tab tab = stringToTab(intent.getStringExtra(Constants.EXTRA_TAB));
-		for (Events event : Zello.getInstance().events) {
-			event.onLastContactsTabChanged(tab);
-		}
+		_lastTab = tab;
+		Zello.getInstance().events.fire(EventsCall.lastContactsTabChanged(tab));
 	}
 
 	private void handlePermissionError(Intent intent) {
@@ -1090,9 +1272,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 		PermissionError error = intToPermissionError(intent.getIntExtra(Constants.EXTRA_LATEST_PERMISSION_ERROR, PermissionError.NONE.ordinal()));
 		if (error == PermissionError.MICROPHONE_NOT_GRANTED) {
-			for (Events event : Zello.getInstance().events) {
-				event.onMicrophonePermissionNotGranted();
-			}
+			Zello.getInstance().events.fire(EventsCall.microphonePermissionNotGranted);
 		}
 	}
 
@@ -1104,9 +1284,7 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		BluetoothAccessoryState state = intToBtAccessoryState(intent.getIntExtra(Constants.EXTRA_STATE, BluetoothAccessoryState.ERROR.ordinal()));
 		String name = intent.getStringExtra(Constants.EXTRA_NAME);
 		String description = intent.getStringExtra(Constants.EXTRA_DESCRIPTION);
-		for (Events event : Zello.getInstance().events) {
-			event.onBluetoothAccessoryStateChanged(type, state, name, description);
-		}
+		Zello.getInstance().events.fire(EventsCall.bluetoothAccessoryStateChanged(type, state, name, description));
 	}
 
 	private boolean isConnected() {
@@ -1127,9 +1305,18 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 	}
 
 	private void fireAppStateChanged() {
-		for (Events event : Zello.getInstance().events) {
-			event.onAppStateChanged();
-		}
+		StateSnapshot state = publishState(_appState, null, null, null);
+		Zello.getInstance().events.fire(EventsCall.appStateChanged(state));
+	}
+
+	// Copies the changed parts into a new snapshot; the first snapshot copies every part from the current state.
+	// Snapshots are published even when nobody subscribed to the change, so that every part stays current.
+	private StateSnapshot publishState(AppState appState, MessageIn messageIn, MessageOut messageOut, Contact selectedContact) {
+		StateSnapshot previous = _state;
+		StateSnapshot state = previous != null ? new StateSnapshot(previous, appState, messageIn, messageOut, selectedContact) :
+				new StateSnapshot(null, _appState, _messageIn, _messageOut, _selectedContact);
+		_state = state;
+		return state;
 	}
 
 	//endregion
@@ -1216,6 +1403,36 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		}
 	}
 
+	static int contactTypeToInt(ContactType type) {
+		switch (type) {
+			case CHANNEL:
+				return 1;
+			case GROUP:
+				return 3;
+			case GATEWAY:
+				return 2;
+			case CONVERSATION:
+				return 4;
+			default:
+				return 0;
+		}
+	}
+
+	static int[] contactStatusToInts(ContactStatus status) {
+		switch (status) {
+			case STANDBY:
+				return new int[]{1};
+			case AVAILABLE:
+				return new int[]{2, 4, 5};
+			case BUSY:
+				return new int[]{3};
+			case CONNECTING:
+				return new int[]{6};
+			default:
+				return new int[]{0};
+		}
+	}
+
 	private static String tabToString(Tab tab) {
 		switch (tab) {
 			case RECENTS:
@@ -1294,6 +1511,16 @@ class Sdk implements SafeHandlerEvents, ServiceConnection {
 		return buf.toString();
 	}
 
+	// Returns null if no user is known; the key is safe to use in a file name
+	private static String getAccountKey(AppState state) {
+		String username = state._username;
+		if (username == null || username.isEmpty()) {
+			return null;
+		}
+		String key = md5(Util.emptyIfNull(state._networkUrl) + "\n" + Util.emptyIfNull(state._network) + "\n" + username);
+		return key.isEmpty() ? null : key;
+	}
+
 	private static String md5(String s) {
 		if (s == null || s.isEmpty()) {
 			return "";
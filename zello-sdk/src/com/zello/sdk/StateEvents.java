@@ -0,0 +1,47 @@
+package com.zello.sdk;
+
+/**
+ * <p>
+ * The <code>StateEvents</code> interface enables monitoring of Zello SDK state changes together with the state that caused them.
+ * </p>
+ * <p>
+ * Unlike the corresponding <code>Events</code> callbacks, these callbacks receive the {@link StateSnapshot} that was published
+ * when the change happened, so handlers don't have to copy the current state with <code>Zello.getAppState(AppState)</code> and similar methods,
+ * and the state they see always matches the event. The callbacks are invoked on the UI thread, unless the handler was subscribed
+ * with an executor.
+ * </p>
+ * @see Zello#subscribeToStateEvents(StateEvents)
+ * @see StateSnapshot
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public interface StateEvents {
+
+	/**
+	 * Called when the selected contact changes.
+	 *
+	 * @param state The state with the new selected contact.
+	 * @see StateSnapshot#getSelectedContact()
+	 * @see Events#onSelectedContactChanged()
+	 */
+	void onSelectedContactChanged(StateSnapshot state);
+
+	/**
+	 * Called when the state of either the {@link MessageOut} or {@link MessageIn} changes.
+	 *
+	 * @param state The state with the new message state.
+	 * @see StateSnapshot#getMessageIn()
+	 * @see StateSnapshot#getMessageOut()
+	 * @see Events#onMessageStateChanged()
+	 */
+	void onMessageStateChanged(StateSnapshot state);
+
+	/**
+	 * Called when the {@link AppState} changes.
+	 *
+	 * @param state The state with the new app state.
+	 * @see StateSnapshot#getAppState()
+	 * @see Events#onAppStateChanged()
+	 */
+	void onAppStateChanged(StateSnapshot state);
+
+}
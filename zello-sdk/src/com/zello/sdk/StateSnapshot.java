@@ -0,0 +1,205 @@
+package com.zello.sdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     The <code>StateSnapshot</code> class is an immutable copy of the state of the Zello SDK at a point in time.
+ * </p>
+ * <p>
+ *     A new snapshot is published every time the app state, the message state or the selected contact changes.
+ *     The parts that didn't change are shared with the previous snapshot, and the same snapshot is passed to every
+ *     {@link StateEvents} subscriber, so delivering it doesn't copy anything. The objects returned by the getters
+ *     can't be modified: calling their <code>reset()</code> method or passing them to a method that copies data into them,
+ *     such as {@link Zello#getAppState(AppState)} or {@link Contacts#getItem(int, Contact)}, throws <code>UnsupportedOperationException</code>.
+ *     Use their <code>clone()</code> method to get a modifiable copy.
+ * </p>
+ * <p>
+ *     To use, subscribe with {@link Zello#subscribeToStateEvents(StateEvents)} or get the current snapshot using the {@link Zello#getState()} method.
+ * </p>
+ * @see StateEvents
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class StateSnapshot {
+
+	//region Private Properties
+
+	private static final AtomicLong _versions = new AtomicLong();
+
+	private final long _version;
+	private final AppState _appState;
+	private final MessageIn _messageIn;
+	private final MessageOut _messageOut;
+	private final Contact _selectedContact;
+
+	//endregion
+
+	//region Package Private Methods
+
+	// Copies the non-null parts and takes the rest from the previous snapshot
+	StateSnapshot(StateSnapshot previous, AppState appState, MessageIn messageIn, MessageOut messageOut, Contact selectedContact) {
+		_version = _versions.incrementAndGet();
+		_appState = appState != null || previous == null ? new FrozenAppState(appState) : previous._appState;
+		_messageIn = messageIn != null || previous == null ? new FrozenMessageIn(messageIn) : previous._messageIn;
+		_messageOut = messageOut != null || previous == null ? new FrozenMessageOut(messageOut) : previous._messageOut;
+		_selectedContact = selectedContact != null || previous == null ? new FrozenContact(selectedContact) : previous._selectedContact;
+	}
+
+	//endregion
+
+	//region Public Methods
+
+	/**
+	 * Returns the version of the snapshot. Snapshots published later have greater versions.
+	 * @return The version of the snapshot.
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns the state of the ZelloWork app.
+	 * @return The unmodifiable app state.
+	 * @see Zello#getAppState(AppState)
+	 */
+	public AppState getAppState() {
+		return _appState;
+	}
+
+	/**
+	 * Returns the state of the incoming message.
+	 * @return The unmodifiable incoming message.
+	 * @see Zello#getMessageIn(MessageIn)
+	 */
+	public MessageIn getMessageIn() {
+		return _messageIn;
+	}
+
+	/**
+	 * Returns the state of the outgoing message.
+	 * @return The unmodifiable outgoing message.
+	 * @see Zello#getMessageOut(MessageOut)
+	 */
+	public MessageOut getMessageOut() {
+		return _messageOut;
+	}
+
+	/**
+	 * Returns the selected contact.
+	 * @return The unmodifiable selected contact.
+	 * @see Zello#getSelectedContact(Contact)
+	 */
+	public Contact getSelectedContact() {
+		return _selectedContact;
+	}
+
+	//endregion
+
+	//region Unmodifiable Copies
+
+	private static final class FrozenAppState extends AppState {
+
+		private boolean _frozen; // Set once the constructor has copied the data
+
+		FrozenAppState(AppState state) {
+			if (state != null) {
+				state.copyTo(this);
+			}
+			_frozen = true;
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("State snapshots can't be modified");
+		}
+
+		@Override
+		void checkWritable() {
+			if (_frozen) {
+				throw new UnsupportedOperationException("State snapshots can't be modified");
+			}
+		}
+
+	}
+
+	private static final class FrozenContact extends Contact {
+
+		private boolean _frozen; // Set once the constructor has copied the data
+
+		FrozenContact(Contact contact) {
+			if (contact != null) {
+				contact.copyTo(this);
+			}
+			_frozen = true;
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("State snapshots can't be modified");
+		}
+
+		@Override
+		void checkWritable() {
+			if (_frozen) {
+				throw new UnsupportedOperationException("State snapshots can't be modified");
+			}
+		}
+
+	}
+
+	private static final class FrozenMessageIn extends MessageIn {
+
+		private boolean _frozen; // Set once the constructor has copied the data
+
+		FrozenMessageIn(MessageIn message) {
+			if (message != null) {
+				message.copyTo(this);
+			}
+			_from = new FrozenContact(_from);
+			_author = new FrozenContact(_author);
+			_frozen = true;
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("State snapshots can't be modified");
+		}
+
+		@Override
+		void checkWritable() {
+			if (_frozen) {
+				throw new UnsupportedOperationException("State snapshots can't be modified");
+			}
+		}
+
+	}
+
+	private static final class FrozenMessageOut extends MessageOut {
+
+		private boolean _frozen; // Set once the constructor has copied the data
+
+		FrozenMessageOut(MessageOut message) {
+			if (message != null) {
+				message.copyTo(this);
+			}
+			_to = new FrozenContact(_to);
+			_frozen = true;
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("State snapshots can't be modified");
+		}
+
+		@Override
+		void checkWritable() {
+			if (_frozen) {
+				throw new UnsupportedOperationException("State snapshots can't be modified");
+			}
+		}
+
+	}
+
+	//endregion
+
+}
@@ -0,0 +1,58 @@
+package com.zello.sdk;
+
+import java.util.HashMap;
+
+/**
+ * Bounded table of canonical string instances shared by consecutive snapshots of a contact list.
+ * <p>
+ * Strings used by the current generation are kept along with the ones used by the previous generation;
+ * strings that were not seen during a whole generation are dropped, so the table never holds more than
+ * two generations of at most <code>capacity</code> strings each.
+ * </p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class StringPool {
+
+	//region Private Properties
+
+	private final int _capacity;
+	private HashMap<String, String> _current = new HashMap<>();
+	private HashMap<String, String> _previous = new HashMap<>();
+
+	//endregion
+
+	//region Package Private Methods
+
+	StringPool(int capacity) {
+		_capacity = capacity;
+	}
+
+	synchronized void nextGeneration() {
+		_previous = _current;
+		_current = new HashMap<>();
+	}
+
+	// Returns the canonical instance of the string
+	synchronized String intern(String s) {
+		String found = _current.get(s);
+		if (found != null) {
+			return found;
+		}
+		found = _previous.get(s);
+		if (found == null) {
+			found = s;
+		}
+		if (_current.size() < _capacity) {
+			_current.put(found, found);
+		}
+		return found;
+	}
+
+	synchronized void clear() {
+		_current = new HashMap<>();
+		_previous = new HashMap<>();
+	}
+
+	//endregion
+
+}
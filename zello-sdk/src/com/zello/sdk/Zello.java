@@ -1,9 +1,16 @@
 package com.zello.sdk;
 
 import android.app.Activity;
+import android.app.Application;
 import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 
-import java.util.ArrayList;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
 
 /**
  * <p>
@@ -20,11 +27,17 @@ public class Zello {
 
 	private static volatile Zello _instance;
 
-	ArrayList<Events> events = new ArrayList<>();
+	final EventsDispatcher events = new EventsDispatcher();
+	final ListenerRegistry<ContactsDeltaEvents> contactsDeltaEvents = new ListenerRegistry<>(new ContactsDeltaEvents[0]);
+	final ListenerRegistry<ContactWatch> contactWatches = new ListenerRegistry<>(new ContactWatch[0]);
+	final Metrics metrics = new Metrics();
+	final EventJournal journal = new EventJournal();
 
 	private Sdk _sdk;
 	// Protect against multiple attempts to configure SDK.
 	private boolean _configured;
+	private Application _lifecycleApplication; // Application that the activity callbacks are registered with
+	private Application.ActivityLifecycleCallbacks _lifecycleCallbacks;
 
 	//region Instance
 
@@ -133,25 +146,302 @@ public class Zello {
 
 	/**
 	 * Subscribes for Zello SDK <code>Events</code>.
+	 * <p>
+	 * This method can be called from any thread, including from inside an <code>Events</code> callback.
+	 * A handler that subscribes while an event is being delivered starts receiving events with the next one.
+	 * </p>
 	 *
 	 * @param event Events handler.
 	 * @see Events
 	 */
 	public void subscribeToEvents(Events event) {
-		if (!events.contains(event)) {
-			events.add(event);
-		}
+		subscribeToEvents(event, null);
+	}
+
+	/**
+	 * Subscribes for Zello SDK <code>Events</code> delivered on the specified executor.
+	 * <p>
+	 * The callbacks of <code>event</code> run on <code>executor</code> instead of the UI thread, so handlers that do
+	 * heavy work, such as logging or synchronizing data, don't have to post every event to their own thread.
+	 * The SDK hands each event to the executor as soon as it happens. Events are delivered in order only if
+	 * the executor runs tasks one at a time in submission order, like a single thread executor.
+	 * Calls that were queued but haven't started yet are dropped when the handler unsubscribes.
+	 * Subscribing a handler that is already subscribed changes its executor.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @see Events
+	 * @see #unsubscribeFromEvents(Events)
+	 */
+	public void subscribeToEvents(Events event, Executor executor) {
+		subscribeToEvents(event, null, executor);
+	}
+
+	/**
+	 * Subscribes for the specified kinds of Zello SDK <code>Events</code>.
+	 * <p>
+	 * Only the callbacks that correspond to <code>kinds</code> are called; the handler is skipped entirely for other events.
+	 * The SDK also skips preparing events that no handler is interested in: for example, the contact list is not queried
+	 * just to detect changes when no handler subscribed to {@link EventKind#CONTACTS} and the list hasn't been requested.
+	 * Subscribing a handler that is already subscribed changes its kinds and executor.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param kinds Nullable; the kinds of events to receive. All events are received when <code>null</code>.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @see EventKind
+	 * @see #unsubscribeFromEvents(Events)
+	 */
+	public void subscribeToEvents(Events event, EnumSet<EventKind> kinds, Executor executor) {
+		subscribeToEvents(event, kinds, executor, false);
+	}
+
+	/**
+	 * Subscribes for the specified kinds of Zello SDK <code>Events</code>, optionally replaying the current state first.
+	 * <p>
+	 * When <code>sticky</code> is <code>true</code>, the handler receives the callbacks for the current state of each subscribed kind right away,
+	 * so a screen that subscribes in <code>onResume()</code> doesn't have to read the state separately.
+	 * The replayed callbacks run on the executor of the subscription, before any later event. If this method is called on the UI thread
+	 * and the handler has no executor, they run before this method returns.
+	 * The state is replayed for {@link EventKind#APP_STATE}, {@link EventKind#MESSAGE_STATE}, {@link EventKind#SELECTED_CONTACT},
+	 * {@link EventKind#LAST_CONTACTS_TAB} once the tab has been reported, and {@link EventKind#AUDIO_STATE} and {@link EventKind#CONTACTS}
+	 * once the audio or the contact list are in use. Other kinds describe one-time occurrences and are not replayed.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param kinds Nullable; the kinds of events to receive. All events are received when <code>null</code>.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @param sticky Whether to replay the current state to the handler.
+	 * @see #subscribeToEvents(Events, EnumSet, Executor)
+	 */
+	public void subscribeToEvents(Events event, EnumSet<EventKind> kinds, Executor executor, boolean sticky) {
+		subscribeToEvents(event, kinds, executor, sticky, null, false);
+	}
+
+	/**
+	 * Subscribes for Zello SDK <code>Events</code> until the specified activity is destroyed.
+	 * <p>
+	 * The subscription ends automatically when <code>owner</code> is destroyed, so an activity that forgets to call
+	 * {@link #unsubscribeFromEvents(Events)} is not kept in memory by the SDK. The handler can still be unsubscribed earlier.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param owner The activity the subscription is bound to.
+	 * @see #subscribeToEvents(Events, EnumSet, Executor, boolean, Activity)
+	 */
+	public void subscribeToEventsUntilDestroyed(Events event, Activity owner) {
+		subscribeToEvents(event, null, null, false, owner);
+	}
+
+	/**
+	 * Subscribes for the specified kinds of Zello SDK <code>Events</code> until the specified activity is destroyed.
+	 * <p>
+	 * See {@link #subscribeToEvents(Events, EnumSet, Executor, boolean)} for the details of the other parameters.
+	 * The subscription ends automatically when <code>owner</code> is destroyed. Calls that were queued on the executor
+	 * but haven't started yet are dropped at that point.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param kinds Nullable; the kinds of events to receive. All events are received when <code>null</code>.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @param sticky Whether to replay the current state to the handler.
+	 * @param owner Nullable; the activity the subscription is bound to. The subscription lasts until unsubscribed when <code>null</code>.
+	 * @see #subscribeToEventsUntilDestroyed(Events, Activity)
+	 */
+	public void subscribeToEvents(Events event, EnumSet<EventKind> kinds, Executor executor, boolean sticky, Activity owner) {
+		subscribeToEvents(event, kinds, executor, sticky, owner, false);
+	}
+
+	/**
+	 * Subscribes for the specified kinds of Zello SDK <code>Events</code> without keeping the handler in memory.
+	 * <p>
+	 * The SDK only holds a weak reference to <code>event</code>. Once the handler is garbage collected, it stops receiving events
+	 * and its subscription is removed the next time an event of a subscribed kind is fired.
+	 * The caller has to keep a strong reference to the handler for as long as it should receive events;
+	 * an anonymous handler that is referenced only by this call may stop receiving events at any time.
+	 * </p>
+	 *
+	 * @param event Events handler.
+	 * @param kinds Nullable; the kinds of events to receive. All events are received when <code>null</code>.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @see #unsubscribeFromEvents(Events)
+	 * @see Metrics#getEventsSubscriptionsPruned()
+	 */
+	public void subscribeToEventsWeakly(Events event, EnumSet<EventKind> kinds, Executor executor) {
+		subscribeToEvents(event, kinds, executor, false, null, true);
 	}
 
 	/**
 	 * Unsubscribes from Zello SDK <code>Events</code>.
+	 * <p>
+	 * This method can be called from any thread, including from inside an <code>Events</code> callback.
+	 * A handler that unsubscribes while an event is being delivered may still receive that event.
+	 * </p>
 	 *
 	 * @param event Events handler.
 	 * @see Events
 	 */
 	public void unsubscribeFromEvents(Events event) {
-		if (events.contains(event)) {
-			events.remove(event);
+		if (event != null) {
+			events.unsubscribe(new EventsSubscription(event, null, null, null));
+		}
+	}
+
+	/**
+	 * Subscribes for Zello SDK state changes delivered together with the new state.
+	 * <p>
+	 * The callbacks run on the UI thread. Each callback receives the <code>StateSnapshot</code> published when the change happened;
+	 * the same snapshot is shared by all subscribers.
+	 * </p>
+	 *
+	 * @param event StateEvents handler.
+	 * @see StateEvents
+	 * @see #subscribeToStateEvents(StateEvents, Executor)
+	 * @see #unsubscribeFromStateEvents(StateEvents)
+	 */
+	public void subscribeToStateEvents(StateEvents event) {
+		subscribeToStateEvents(event, null);
+	}
+
+	/**
+	 * Subscribes for Zello SDK state changes delivered together with the new state on the specified executor.
+	 * <p>
+	 * See {@link #subscribeToEvents(Events, Executor)} for the details of delivery on an executor.
+	 * </p>
+	 *
+	 * @param event StateEvents handler.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @see StateEvents
+	 * @see #unsubscribeFromStateEvents(StateEvents)
+	 */
+	public void subscribeToStateEvents(StateEvents event, Executor executor) {
+		subscribeToStateEvents(event, executor, false);
+	}
+
+	/**
+	 * Subscribes for Zello SDK state changes delivered together with the new state, optionally replaying the current state first.
+	 * <p>
+	 * See {@link #subscribeToEvents(Events, EnumSet, Executor, boolean)} for the details of the replay.
+	 * </p>
+	 *
+	 * @param event StateEvents handler.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @param sticky Whether to replay the current state to the handler.
+	 * @see StateEvents
+	 * @see #unsubscribeFromStateEvents(StateEvents)
+	 */
+	public void subscribeToStateEvents(StateEvents event, Executor executor, boolean sticky) {
+		subscribeToStateEvents(event, executor, sticky, null);
+	}
+
+	/**
+	 * Subscribes for Zello SDK state changes until the specified activity is destroyed.
+	 * <p>
+	 * See {@link #subscribeToEvents(Events, EnumSet, Executor, boolean, Activity)} for the details of binding to an activity.
+	 * </p>
+	 *
+	 * @param event StateEvents handler.
+	 * @param executor Nullable; the executor to run the callbacks on. The callbacks run on the UI thread when <code>null</code>.
+	 * @param sticky Whether to replay the current state to the handler.
+	 * @param owner Nullable; the activity the subscription is bound to. The subscription lasts until unsubscribed when <code>null</code>.
+	 * @see StateEvents
+	 * @see #unsubscribeFromStateEvents(StateEvents)
+	 */
+	public void subscribeToStateEvents(StateEvents event, Executor executor, boolean sticky, Activity owner) {
+		if (event == null) {
+			return;
+		}
+		EventsSubscription subscription = new EventsSubscription(null, event, null, executor, false, owner);
+		if (owner != null) {
+			observeLifecycle(owner);
+		}
+		events.subscribe(subscription);
+		if (sticky) {
+			replay(subscription);
+		}
+	}
+
+	/**
+	 * Unsubscribes from Zello SDK state changes.
+	 *
+	 * @param event StateEvents handler.
+	 * @see #subscribeToStateEvents(StateEvents)
+	 */
+	public void unsubscribeFromStateEvents(StateEvents event) {
+		if (event != null) {
+			events.unsubscribe(new EventsSubscription(null, event, null, null));
+		}
+	}
+
+	/**
+	 * Subscribes for incremental changes to the contact list.
+	 * <p>
+	 * Unlike <code>Events.onContactsChanged()</code>, which only signals that the list changed, the subscriber
+	 * receives a <code>ContactsDelta</code> with the contacts that were added, removed or modified since
+	 * the previous snapshot, so the UI can be updated in proportion to the number of changes.
+	 * </p>
+	 *
+	 * @param event ContactsDeltaEvents handler.
+	 * @see ContactsDeltaEvents
+	 * @see #unsubscribeFromContactsDelta(ContactsDeltaEvents)
+	 */
+	public void subscribeToContactsDelta(ContactsDeltaEvents event) {
+		if (contactsDeltaEvents.add(event)) {
+			startContacts();
+		}
+	}
+
+	/**
+	 * Unsubscribes from incremental changes to the contact list.
+	 *
+	 * @param event ContactsDeltaEvents handler.
+	 * @see ContactsDeltaEvents
+	 * @see #subscribeToContactsDelta(ContactsDeltaEvents)
+	 */
+	public void unsubscribeFromContactsDelta(ContactsDeltaEvents event) {
+		contactsDeltaEvents.remove(event);
+	}
+
+	/**
+	 * Subscribes for changes to a single contact.
+	 * <p>
+	 * The listener is called only when the status, status message, users count or muted flag of the contact changes,
+	 * so screens that show a few contacts don't have to scan the whole list on every <code>Events.onContactsChanged()</code>.
+	 * The SDK detects the changes by comparing consecutive versions of the contact list.
+	 * </p>
+	 *
+	 * @param name The name of the contact as returned by {@link Contact#getName()}.
+	 * @param type The type of the contact.
+	 * @param listener ContactWatchEvents handler.
+	 * @see ContactWatchEvents
+	 * @see #unwatchContact(String, ContactType, ContactWatchEvents)
+	 */
+	public void watchContact(String name, ContactType type, ContactWatchEvents listener) {
+		checkConfiguration();
+		if (name == null || type == null || listener == null) {
+			return;
+		}
+		if (!contactWatches.add(new ContactWatch(name, type, listener))) {
+			return;
+		}
+		Contacts contacts = _sdk.getContacts();
+		if (contacts != null) {
+			contacts.startWatching();
+		}
+	}
+
+	/**
+	 * Unsubscribes from changes to a single contact.
+	 *
+	 * @param name The name of the contact.
+	 * @param type The type of the contact.
+	 * @param listener ContactWatchEvents handler.
+	 * @see #watchContact(String, ContactType, ContactWatchEvents)
+	 */
+	public void unwatchContact(String name, ContactType type, ContactWatchEvents listener) {
+		if (name != null && type != null && listener != null) {
+			contactWatches.remove(new ContactWatch(name, type, listener));
 		}
 	}
 
@@ -715,6 +1005,22 @@ public class Zello {
 		_sdk.getSelectedContact(contact);
 	}
 
+	/**
+	 * Gets the current state of the SDK as an immutable snapshot.
+	 * <p>
+	 * Unlike {@link #getAppState(AppState)} and similar methods, this method doesn't copy the state: the same snapshot
+	 * is returned until the state changes, and it never changes after it has been published.
+	 * </p>
+	 *
+	 * @return The current state.
+	 * @see StateSnapshot
+	 * @see StateEvents
+	 */
+	public StateSnapshot getState() {
+		checkConfiguration();
+		return _sdk.getState();
+	}
+
 	/**
 	 * Gets the list of users and channels in the contact list of the current user.
 	 * <p>
@@ -736,6 +1042,121 @@ public class Zello {
 		return _sdk.getContacts();
 	}
 
+	/**
+	 * Gets a filtered and sorted subset of the contact list of the current user.
+	 * <p>
+	 * The filters, projected columns and sort order of <code>query</code> are applied by the ZelloWork app,
+	 * so only the matching rows and the requested columns are transferred.
+	 * The same instance is returned for equal queries; later changes to <code>query</code> do not affect the returned list.
+	 * </p>
+	 * <p>
+	 * The list is loaded in the background and is empty until then; use {@link Contacts#loadAsync(ContactsCallback)} to be notified when it's loaded.
+	 * Each filtered list keeps a query open in the ZelloWork app, so only the 8 most recently requested lists are kept.
+	 * Older lists are released and become empty; release a list with {@link #releaseContacts(Contacts)} as soon as it's no longer needed.
+	 * </p>
+	 * <p>
+	 * <code>onContactsChanged()</code> is called on the <code>Events</code> interface once per change of the full list,
+	 * not once per filtered list.
+	 * </p>
+	 *
+	 * @param query Nullable; the query to run. A null value returns the full list.
+	 * @return The matching contacts of the currently signed in user.
+	 * @see ContactsQuery
+	 * @see #getContacts()
+	 */
+	public Contacts getContacts(ContactsQuery query) {
+		checkConfiguration();
+		return _sdk.getContacts(query);
+	}
+
+	/**
+	 * Releases a filtered contact list.
+	 * <p>
+	 * The list stops tracking changes and becomes empty. A later call to {@link #getContacts(ContactsQuery)} with the same query
+	 * returns a new instance. The full contact list can't be released.
+	 * </p>
+	 *
+	 * @param contacts The list returned by {@link #getContacts(ContactsQuery)}.
+	 * @see #getContacts(ContactsQuery)
+	 */
+	public void releaseContacts(Contacts contacts) {
+		Sdk sdk = _sdk;
+		if (sdk != null) {
+			sdk.releaseContacts(contacts);
+		}
+	}
+
+	/**
+	 * Gets aggregate counts over the contacts of the currently signed in user.
+	 * <p>
+	 * This method updates the provided instance of the <code>ContactsStats</code> object with the current data.
+	 * The object does not update automatically, so call this method every time you need the current values.
+	 * </p>
+	 * <p>
+	 * After the first call the SDK keeps the counts up to date in the background as the contact list changes,
+	 * and subsequent calls only copy the counts. NB: The first call, or a call made right after the contact list has changed,
+	 * may take nontrivial time to execute.
+	 * </p>
+	 *
+	 * @param stats The object to copy data to.
+	 * @see ContactsStats
+	 */
+	public void getContactsStats(ContactsStats stats) {
+		checkConfiguration();
+		Contacts contacts = _sdk.getContacts();
+		if (contacts != null) {
+			contacts.getStats(stats);
+		} else if (stats != null) {
+			stats.reset();
+		}
+	}
+
+	/**
+	 * Gets the current values of the Zello SDK counters.
+	 * <p>
+	 * This method updates the provided instance of the <code>Metrics</code> object with the current data.
+	 * The object does not update automatically, so call this method every time you need the current values.
+	 * </p>
+	 *
+	 * @param metrics The object to copy data to.
+	 * @see Metrics
+	 */
+	public void getMetrics(Metrics metrics) {
+		checkConfiguration();
+		this.metrics.copyTo(metrics);
+	}
+
+	/**
+	 * Writes the event journal of the Zello SDK.
+	 * <p>
+	 * The journal holds the most recent broadcasts received from the Zello app and commands sent to it, one per line,
+	 * with the wall clock time, the type of the entry and a short description such as the flags of the app state.
+	 * Only the last 512 entries are kept. The journal is not cleared when the SDK is configured again.
+	 * Use it to find out what happened around the time of a reported problem, for example by writing it to a file that the user can send.
+	 * Recording doesn't allocate or take locks, so the journal is always on.
+	 * </p>
+	 * <p>
+	 * This method can be called from any thread. Entries recorded while the journal is being written may be left out.
+	 * </p>
+	 *
+	 * @param writer The writer to print the journal to.
+	 * @see #dumpEventJournal()
+	 */
+	public void dumpEventJournal(PrintWriter writer) {
+		journal.dump(writer);
+	}
+
+	/**
+	 * Returns the event journal of the Zello SDK as text.
+	 *
+	 * @return The journal in the format described in {@link #dumpEventJournal(PrintWriter)}.
+	 */
+	public String dumpEventJournal() {
+		StringWriter text = new StringWriter();
+		journal.dump(new PrintWriter(text));
+		return text.toString();
+	}
+
 	/**
 	 * Gets an instance of the <code>Audio</code> class that is used to control Zello audio settings.
 	 *
@@ -867,6 +1288,48 @@ public class Zello {
 		_sdk.setSelectedChannelOrGroup(name);
 	}
 
+	/**
+	 * Configures how contact list change notifications from the ZelloWork app are coalesced.
+	 * <p>
+	 * When enabled, a burst of change notifications results in a single invalidation of the contact list and a single
+	 * <code>onContactsChanged()</code> call on the <code>Events</code> interface. The invalidation happens once no new
+	 * notification has arrived for <code>windowMillis</code>, but no later than <code>maxLatencyMillis</code> after the
+	 * first notification of the burst.
+	 * </p>
+	 * <p>
+	 * Coalescing is disabled by default. This setting can be changed before the SDK is configured.
+	 * </p>
+	 *
+	 * @param windowMillis     Quiet period in milliseconds; <code>0</code> disables coalescing.
+	 * @param maxLatencyMillis Maximum delay of the first notification in a burst, in milliseconds.
+	 * @see Metrics#getContactsNotificationsMerged()
+	 * @see Events#onContactsChanged()
+	 */
+	public void setContactsChangeCoalescing(long windowMillis, long maxLatencyMillis) {
+		ContactsObserver.setCoalescing(windowMillis, maxLatencyMillis);
+	}
+
+	/**
+	 * Configures conflation of <code>Events</code> callbacks.
+	 * <p>
+	 * When enabled, events are not delivered as soon as they happen. They are queued and delivered together before the next frame is drawn,
+	 * or after <code>intervalMillis</code> if it's greater than <code>0</code>. An event that is still queued is replaced with a later event
+	 * of the same kind, so, for example, a burst of <code>onAppStateChanged()</code> calls during a reconnect results in a single call per frame.
+	 * Events are delivered in the order they were first queued. <code>onBluetoothAccessoryStateChanged()</code> calls are never merged.
+	 * </p>
+	 * <p>
+	 * Conflation is disabled by default. This setting can be changed before the SDK is configured.
+	 * </p>
+	 *
+	 * @param enabled        Whether to conflate events.
+	 * @param intervalMillis Delay of the delivery after the first queued event in milliseconds; <code>0</code> to deliver before the next frame.
+	 * @see Metrics#getEventsConflated()
+	 * @see Events
+	 */
+	public void setEventsConflation(boolean enabled, long intervalMillis) {
+		events.setConflation(enabled, intervalMillis);
+	}
+
 	/**
 	 * Asks the host app to suppress UI notifications when Bluetooth PTT buttons connect or disconnect.
 	 * <p>
@@ -893,6 +1356,7 @@ public class Zello {
 	private synchronized void doConfigure(String packageName, Context context) {
 		if (!_configured) {
 			_configured = true;
+			metrics.reset();
 
 			_sdk = new Sdk();
 			_sdk.onCreate(packageName, context);
@@ -906,10 +1370,105 @@ public class Zello {
 		_sdk.onDestroy();
 		_sdk = null;
 		events.clear();
+		contactsDeltaEvents.clear();
+		contactWatches.clear();
+		if (_lifecycleApplication != null) {
+			_lifecycleApplication.unregisterActivityLifecycleCallbacks(_lifecycleCallbacks);
+			_lifecycleApplication = null;
+		}
 
 		_configured = false;
 	}
 
+	private void subscribeToEvents(Events event, EnumSet<EventKind> kinds, Executor executor, boolean sticky, Activity owner, boolean weak) {
+		if (event == null) {
+			return;
+		}
+		EventsSubscription subscription = new EventsSubscription(event, null, kinds, executor, weak, owner);
+		if (owner != null) {
+			observeLifecycle(owner);
+		}
+		events.subscribe(subscription);
+		if (kinds == null || kinds.contains(EventKind.CONTACTS)) {
+			startContacts();
+		}
+		if (sticky) {
+			replay(subscription);
+		}
+	}
+
+	// Registers a single set of activity callbacks that ends the subscriptions bound to destroyed activities
+	private synchronized void observeLifecycle(Activity owner) {
+		Application application = owner.getApplication();
+		if (application == null || application == _lifecycleApplication) {
+			return;
+		}
+		if (_lifecycleCallbacks == null) {
+			_lifecycleCallbacks = new Application.ActivityLifecycleCallbacks() {
+				@Override
+				public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+				}
+
+				@Override
+				public void onActivityStarted(Activity activity) {
+				}
+
+				@Override
+				public void onActivityResumed(Activity activity) {
+				}
+
+				@Override
+				public void onActivityPaused(Activity activity) {
+				}
+
+				@Override
+				public void onActivityStopped(Activity activity) {
+				}
+
+				@Override
+				public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+				}
+
+				@Override
+				public void onActivityDestroyed(Activity activity) {
+					events.unsubscribeOwner(activity);
+				}
+			};
+		}
+		if (_lifecycleApplication != null) {
+			_lifecycleApplication.unregisterActivityLifecycleCallbacks(_lifecycleCallbacks);
+		}
+		_lifecycleApplication = application;
+		application.registerActivityLifecycleCallbacks(_lifecycleCallbacks);
+	}
+
+	// Events are fired on the UI thread, so replaying there keeps the replayed state ahead of later events
+	private void replay(final EventsSubscription subscription) {
+		Runnable replay = new Runnable() {
+			@Override
+			public void run() {
+				Sdk sdk = _sdk;
+				if (sdk != null) {
+					sdk.replayEvents(subscription);
+				}
+			}
+		};
+		Looper looper = Looper.getMainLooper();
+		if (Looper.myLooper() == looper) {
+			replay.run();
+		} else {
+			new Handler(looper).post(replay);
+		}
+	}
+
+	// Creates the contact list so that its changes are detected
+	private void startContacts() {
+		Sdk sdk = _sdk;
+		if (sdk != null) {
+			sdk.getContacts();
+		}
+	}
+
 	private void checkConfiguration() {
 		if (!_configured) {
 			throw new RuntimeException("The SDK has not yet been configured. Call Zello.configure() first.");